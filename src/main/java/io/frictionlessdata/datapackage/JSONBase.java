@@ -24,13 +24,12 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.util.Enumeration;
+import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import static io.frictionlessdata.datapackage.Validator.isValidUrl;
 
@@ -310,71 +309,63 @@ public abstract class JSONBase implements BaseInterface {
         }
     }
 
-    /**
-     * Take a ZipFile and look for the `filename` entry. If it is not on the top-level,
-     * look for directories and go into them (but only one level deep) and look again
-     * for the `filename` entry
-     * @param zipFile the ZipFile to use for looking for the `filename` entry
-     * @param fileName name of the entry we are looking for
-     * @return ZipEntry if found, null otherwise
-     */
-    private static ZipEntry findZipEntry(ZipFile zipFile, String fileName) {
-        ZipEntry entry = zipFile.getEntry(fileName);
-        if (null != entry)
-            return entry;
-        else {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry zipEntry = entries.nextElement();
-                if (zipEntry.isDirectory()) {
-                    entry = zipFile.getEntry(zipEntry.getName()+fileName);
-                    if (null != entry)
-                        return entry;
-                }
-            }
-        }
-        return null;
-    }
-
     protected static String getZipFileContentAsString(Path inFilePath, String fileName, boolean strict) throws IOException {
         // Read in memory the file inside the zip.
-        ZipFile zipFile = new ZipFile(inFilePath.toFile());
-        ZipEntry entry = findZipEntry(zipFile, fileName);
-
-        if (entry == null) {
-            if (strict) {
-                throw new DataPackageException("The zip file does not contain the expected file: " + fileName);
-            } else {
-                return null;
+        try (ZipArchive archive = ZipArchive.acquire(inFilePath)) {
+            ZipEntry entry = archive.getEntry(fileName);
+
+            if (entry == null) {
+                if (strict) {
+                    throw new DataPackageException("The zip file does not contain the expected file: " + fileName);
+                } else {
+                    return null;
+                }
             }
-        }
 
-        String content;
-        try (InputStream stream = zipFile.getInputStream(entry)) {
-            content = getFileContentAsString(stream);
+            try (InputStream stream = archive.getInputStream(entry)) {
+                return getFileContentAsString(stream);
+            }
         }
-        zipFile.close();
-        return content;
     }
 
     protected static byte[] getZipFileContentAsByteArray(Path inFilePath, String fileName, boolean strict) throws IOException {
         // Read in memory the file inside the zip.
-        ZipFile zipFile = new ZipFile(inFilePath.toFile());
-        ZipEntry entry = findZipEntry(zipFile, fileName);
+        try (ZipArchive archive = ZipArchive.acquire(inFilePath)) {
+            ZipEntry entry = archive.getEntry(fileName);
+
+            if (entry == null) {
+                if (strict) {
+                    throw new DataPackageException("The zip file does not contain the expected file: " + fileName);
+                } else {
+                    return null;
+                }
+            }
+            try (InputStream inputStream = archive.getInputStream(entry);
+                 ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                inputStream.transferTo(out);
+                return out.toByteArray();
+            }
+        }
+    }
 
-        if (entry == null) {
-            if (strict) {
+    /**
+     * Copy the `fileName` entry of a ZIP file to `target`. The entry is streamed, so memory use does not
+     * depend on the size of the entry.
+     *
+     * @param inFilePath the ZIP file
+     * @param fileName name of the entry, looked up like in {@link #getZipFileContentAsString(Path, String, boolean)}
+     * @param target the file to write the entry to, it is replaced if it exists
+     * @throws IOException if reading the ZIP file or writing `target` fails
+     */
+    protected static void copyZipFileEntry(Path inFilePath, String fileName, Path target) throws IOException {
+        try (ZipArchive archive = ZipArchive.acquire(inFilePath)) {
+            ZipEntry entry = archive.getEntry(fileName);
+            if (entry == null) {
                 throw new DataPackageException("The zip file does not contain the expected file: " + fileName);
-            } else {
-                return null;
             }
-        }
-        try (InputStream inputStream = zipFile.getInputStream(entry);
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            for (int b; (b = inputStream.read()) != -1; ) {
-                out.write(b);
+            try (InputStream stream = archive.getInputStream(entry)) {
+                Files.copy(stream, target, StandardCopyOption.REPLACE_EXISTING);
             }
-            return out.toByteArray();
         }
     }
 
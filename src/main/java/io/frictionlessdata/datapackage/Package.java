@@ -12,9 +12,16 @@ import tools.jackson.databind.node.ObjectNode;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageFileOrUrlNotFoundException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndexCache;
+import io.frictionlessdata.datapackage.fk.ForeignKeyValidationReport;
+import io.frictionlessdata.datapackage.fk.ForeignKeyViolationSink;
+import io.frictionlessdata.datapackage.fk.RelationIndexCache;
 import io.frictionlessdata.datapackage.resource.AbstractDataResource;
 import io.frictionlessdata.datapackage.resource.AbstractReferencebasedResource;
+import io.frictionlessdata.datapackage.resource.AbstractResource;
+import io.frictionlessdata.datapackage.resource.FilebasedResource;
 import io.frictionlessdata.datapackage.resource.Resource;
+import io.frictionlessdata.datapackage.resource.TableCache;
 import io.frictionlessdata.tableschema.exception.JsonParsingException;
 import io.frictionlessdata.tableschema.exception.ValidationException;
 import io.frictionlessdata.tableschema.util.JsonUtil;
@@ -35,6 +42,14 @@ import java.nio.file.FileSystem;
 import java.nio.file.*;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -46,8 +61,11 @@ import static io.frictionlessdata.datapackage.Validator.isValidUrl;
  * https://specs.frictionlessdata.io/data-package
  */
 @JsonInclude(value = Include.NON_EMPTY, content = Include.NON_EMPTY )
-public class Package extends JSONBase{
+public class Package extends JSONBase implements AutoCloseable {
     public  static final String DATAPACKAGE_FILENAME = "datapackage.json";
+    public  static final String FOREIGN_KEY_INDEX_DIRECTORY = ".index";
+    // 256 MB
+    public  static final long DEFAULT_RELATION_CACHE_BUDGET = 256L * 1024 * 1024;
     private static final String JSON_KEY_RESOURCES = "resources";
     private static final String JSON_KEY_ID = "id";
     private static final String JSON_KEY_VERSION = "version";
@@ -82,6 +100,17 @@ public class Package extends JSONBase{
     
     private ObjectNode jsonObject = JsonUtil.getInstance().createNode();
     private boolean strictValidation = false;
+    private boolean foreignKeyIndexOffHeap = false;
+    private long foreignKeyIndexSpillThreshold = 0;
+    private Path foreignKeyIndexSpillDirectory = null;
+    private boolean foreignKeyIndexPersistent = false;
+    private ExecutorService validationExecutor = null;
+    private RelationIndexCache relationIndexCache = new RelationIndexCache(DEFAULT_RELATION_CACHE_BUDGET);
+    private TableCache tableCache = null;
+    private long dataSpillThreshold = 0;
+    private Path dataSpillDirectory = null;
+    // the ZIP file of an archive Package, held open while the Package is
+    private ZipArchive zipArchive = null;
     private final List<Resource> resources = new ArrayList<>();
     private final List<DataPackageValidationException> errors = new ArrayList<>();
 
@@ -154,13 +183,7 @@ public class Package extends JSONBase{
      */
     public Package(URL urlSource, boolean strict) throws Exception {
         this.strictValidation = strict;
-        this.basePath = getParentUrl(urlSource);
-
-        if (!isValidUrl(urlSource.toExternalForm())) {
-            throw new DataPackageException("URL form not valid: "+urlSource.toExternalForm());
-        }
-        // Get string content of given remove file.
-        String jsonString = getFileContentAsString(urlSource);
+        String jsonString = readDescriptor(urlSource);
 
         // Create JsonNode and validate.
         try {
@@ -172,6 +195,24 @@ public class Package extends JSONBase{
         }
     }
 
+    // an empty Package, filled from its descriptor by loadAsync()
+    private Package(boolean strict) {
+        this.strictValidation = strict;
+    }
+
+    /*
+     * Set the base URL of this Package from the URL of its descriptor and read the descriptor.
+     */
+    private String readDescriptor(URL urlSource) throws Exception {
+        this.basePath = getParentUrl(urlSource);
+
+        if (!isValidUrl(urlSource.toExternalForm())) {
+            throw new DataPackageException("URL form not valid: "+urlSource.toExternalForm());
+        }
+        // Get string content of given remove file.
+        return getFileContentAsString(urlSource);
+    }
+
     /**
      * Load from local file path. The file path to the descriptor can be either absolute
      * or relative to the working directory. However, to prevent file system traversal attacks,
@@ -200,6 +241,20 @@ public class Package extends JSONBase{
      */
     public Package(Path descriptorFile, boolean strict) throws Exception {
         this.strictValidation = strict;
+        JsonNode sourceJsonNode = readDescriptor(descriptorFile);
+        try {
+            this.setJson((ObjectNode) sourceJsonNode);
+        } catch (Exception ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /*
+     * Set the base path of this Package from the location of its descriptor, open the archive of a ZIP-based
+     * Package, and read the descriptor.
+     */
+    private JsonNode readDescriptor(Path descriptorFile) throws Exception {
         JsonNode sourceJsonNode;
         if (!descriptorFile.toFile().exists()) {
             throw new DataPackageFileOrUrlNotFoundException("File " + descriptorFile + "does not exist");
@@ -213,14 +268,174 @@ public class Package extends JSONBase{
             if (isArchive(descriptorFile.toFile())) {
                 isArchivePackage = true;
                 basePath = descriptorFile;
-                sourceJsonNode = createNode(JSONBase.getZipFileContentAsString(descriptorFile, DATAPACKAGE_FILENAME, true));
+                // keep the archive open, so reading schemas, dialects and data does not reopen it
+                zipArchive = ZipArchive.acquire(descriptorFile);
+                try {
+                    sourceJsonNode = createNode(JSONBase.getZipFileContentAsString(descriptorFile, DATAPACKAGE_FILENAME, true));
+                } catch (Exception ex) {
+                    close();
+                    throw ex;
+                }
             } else {
                 basePath = descriptorFile.getParent();
                 String sourceJsonString = getFileContentAsString(descriptorFile);
                 sourceJsonNode = createNode(sourceJsonString);
             }
         }
-        this.setJson((ObjectNode) sourceJsonNode);
+        return sourceJsonNode;
+    }
+
+    /**
+     * Load a Package from a local file path like {@link #Package(Path, boolean)}, without blocking the calling
+     * thread. Reading the descriptor, creating each Resource with its Schema and Dialect, and loading the
+     * tables of each tabular Resource are separate tasks on `executor`, so the Resources are dereferenced
+     * and their data is loaded concurrently. No task waits for another, so a single-threaded executor works.
+     *
+     * @param descriptorFile local file path that points to the DataPackage Descriptor, the ZIP file of a
+     *                       ZIP-based package or to the parent directory
+     * @param strict whether to use strict schema parsing
+     * @param executor the executor to load on, it is not shut down by the Package
+     * @return a future that completes with the Package once the data of its Resources is loaded, or
+     * exceptionally if the Package is invalid or its data cannot be read and validation is strict. If validation
+     * is not strict, both are recorded in {@link #getErrors()} instead
+     */
+    public static CompletableFuture<Package> loadAsync(Path descriptorFile, boolean strict, Executor executor) {
+        Package pkg = new Package(strict);
+        return pkg.loadAsync(() -> (ObjectNode) pkg.readDescriptor(descriptorFile), false, executor);
+    }
+
+    /**
+     * Load a Package from a URL like {@link #Package(URL, boolean)}, without blocking the calling thread. The
+     * Package is loaded like by {@link #loadAsync(Path, boolean, Executor)}.
+     *
+     * @param urlSource the URL that points to the DataPackage Descriptor or the ZIP file of a ZIP-based package
+     * @param strict whether to use strict schema parsing
+     * @param executor the executor to load on, it is not shut down by the Package
+     * @return a future that completes with the Package once the data of its Resources is loaded, or
+     * exceptionally if the Package is invalid or its data cannot be read and validation is strict. If validation
+     * is not strict, both are recorded in {@link #getErrors()} instead
+     */
+    public static CompletableFuture<Package> loadAsync(URL urlSource, boolean strict, Executor executor) {
+        Package pkg = new Package(strict);
+        return pkg.loadAsync(() -> {
+            String jsonString = pkg.readDescriptor(urlSource);
+            try {
+                return (ObjectNode) createNode(jsonString);
+            } catch (DataPackageException ex) {
+                if (strict)
+                    throw ex;
+                return null;
+            }
+        }, !strict, executor);
+    }
+
+    /*
+     * Read the descriptor, then create all Resources concurrently, then set up this Package from the descriptor
+     * and the Resources, then load the tables of all Resources concurrently. If `lenient`, exceptions thrown
+     * while setting up the Package are ignored like in the URL constructor.
+     */
+    private CompletableFuture<Package> loadAsync(Callable<ObjectNode> descriptor, boolean lenient,
+                                                 Executor executor) {
+        return supplyAsync(descriptor, executor)
+                .thenCompose(node -> {
+                    if (null == node)
+                        return CompletableFuture.completedFuture(this);
+                    List<CompletableFuture<Resource>> resourceFutures = new ArrayList<>();
+                    JsonNode resourcesJson = node.get(JSON_KEY_RESOURCES);
+                    if ((null != resourcesJson) && resourcesJson.isArray()) {
+                        for (int i = 0; i < resourcesJson.size(); i++) {
+                            ObjectNode resourceJson = (ObjectNode) resourcesJson.get(i);
+                            resourceFutures.add(supplyAsync(
+                                    () -> Resource.fromJSON(resourceJson, basePath, isArchivePackage), executor));
+                        }
+                    }
+                    return CompletableFuture.allOf(resourceFutures.toArray(new CompletableFuture[0]))
+                            // failed Resources are handled by setJson(), like in the constructors
+                            .handle((v, ex) -> null)
+                            .thenApply(v -> {
+                                try {
+                                    setJson(node, resourceFutures);
+                                } catch (DataPackageException ex) {
+                                    if (!lenient)
+                                        throw ex;
+                                } catch (Exception ex) {
+                                    throw new CompletionException(ex);
+                                }
+                                return this;
+                            })
+                            .thenCompose(pkg -> readDataAsync(executor));
+                })
+                .whenComplete((pkg, ex) -> {
+                    if (null != ex) {
+                        try {
+                            close();
+                        } catch (IOException ignored) {
+                            // the failure of loading is reported
+                        }
+                    }
+                });
+    }
+
+    /*
+     * Load the tables of all tabular Resources on `executor`. If validation is not strict, a Resource whose data
+     * cannot be read is recorded in the errors of this Package, like an invalid Resource, instead of failing the
+     * load.
+     */
+    private CompletableFuture<Package> readDataAsync(Executor executor) {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (Resource resource : resources) {
+            if (!Profile.PROFILE_DATA_RESOURCE_DEFAULT.equals(resource.getProfile())
+                    && (null != resource.getSerializationFormat())) {
+                CompletableFuture<?> future = resource.readAsync(executor);
+                if (!strictValidation) {
+                    future = future.handle((tables, ex) -> {
+                        if (null != ex) {
+                            Throwable cause = (ex instanceof CompletionException) ? ex.getCause() : ex;
+                            synchronized (errors) {
+                                errors.add(new DataPackageValidationException("Reading the data of Resource '"
+                                        + resource.getName() + "' failed: " + cause.getMessage(), cause));
+                            }
+                        }
+                        return tables;
+                    });
+                }
+                futures.add(future);
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> this);
+    }
+
+    // run `task` on `executor`, completing the future exceptionally with the exception the task throws
+    private static <R> CompletableFuture<R> supplyAsync(Callable<R> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * Release the resources held by this Package. For a Package read from a ZIP file, this closes the archive,
+     * which stays open while the Package is in use so entries can be read without reparsing the archive, and
+     * deletes the entries extracted to temporary files. Data read from the archive afterwards will be read by
+     * reopening it.
+     *
+     * @throws IOException if closing the archive fails
+     */
+    @Override
+    public void close() throws IOException {
+        for (Resource r : resources) {
+            if (r instanceof FilebasedResource)
+                ((FilebasedResource) r).releaseExtractedFiles();
+        }
+        if (null != zipArchive) {
+            zipArchive.close();
+            zipArchive = null;
+        }
     }
 
     public Resource getResource(String resourceName){
@@ -429,6 +644,214 @@ public class Package extends JSONBase{
         }
     }
 
+    /**
+     * Whether foreign key indexes built during validation store their keys in direct (off-heap) buffers.
+     * @return true if foreign key indexes are allocated off-heap
+     */
+    @JsonIgnore
+    public boolean isForeignKeyIndexOffHeap() {
+        return foreignKeyIndexOffHeap;
+    }
+
+    /**
+     * Allocate the key sets of foreign key indexes in direct buffers outside the Java heap. This keeps
+     * indexes over very large referenced Resources from putting pressure on the garbage collector; the
+     * memory is limited by `-XX:MaxDirectMemorySize` instead of the heap size.
+     *
+     * @param offHeap true to allocate foreign key indexes off-heap
+     */
+    public void setForeignKeyIndexOffHeap(boolean offHeap) {
+        this.foreignKeyIndexOffHeap = offHeap;
+    }
+
+    /**
+     * @return the number of key tuples the index of a foreign key holds in memory before spilling to disk,
+     * 0 if indexes are kept in memory entirely
+     */
+    @JsonIgnore
+    public long getForeignKeyIndexSpillThreshold() {
+        return foreignKeyIndexSpillThreshold;
+    }
+
+    /**
+     * Let foreign key indexes spill to disk once they hold more than `maxKeysInMemory` keys. Each foreign key
+     * has one index of its whole key tuples, so a tuple of several fields counts as one key. This allows
+     * validating foreign keys against referenced Resources with more distinct keys than fit into memory: keys
+     * are written to sorted runs in temporary files, merged into a file ordered by key hash, and looked up in
+     * batches behind a Bloom filter.
+     *
+     * @param maxKeysInMemory number of key tuples kept in memory per foreign key, 0 to never spill
+     */
+    public void setForeignKeyIndexSpillThreshold(long maxKeysInMemory) {
+        if (maxKeysInMemory < 0)
+            throw new DataPackageException("Foreign key index spill threshold must not be negative");
+        this.foreignKeyIndexSpillThreshold = maxKeysInMemory;
+    }
+
+    /**
+     * @return the directory spilled foreign key indexes are written to, null for the default temp directory
+     */
+    @JsonIgnore
+    public Path getForeignKeyIndexSpillDirectory() {
+        return foreignKeyIndexSpillDirectory;
+    }
+
+    /**
+     * Set the directory spilled foreign key indexes are written to. The files are deleted once
+     * validation finishes.
+     *
+     * @param directory a directory on local disk, null for the default temp directory
+     */
+    public void setForeignKeyIndexSpillDirectory(Path directory) {
+        this.foreignKeyIndexSpillDirectory = directory;
+    }
+
+    /**
+     * @return the estimated heap size of raw rows that reading all data of a Resource holds in memory before
+     * spilling to disk, 0 if all data is read into memory
+     */
+    @JsonIgnore
+    public long getDataSpillThreshold() {
+        return dataSpillThreshold;
+    }
+
+    /**
+     * Let the methods reading all data of a Resource at once, like {@link Resource#getMappedData(boolean)},
+     * spill to disk once the raw rows read exceed an estimated `maxBytesInMemory` of heap. The rows are then
+     * written to a temporary file, and the returned List is a read-only view of that file that decodes rows
+     * when they are read. Data read with relations is always read into memory.
+     *
+     * @param maxBytesInMemory the estimated heap size of raw rows held in memory, 0 to never spill
+     */
+    public void setDataSpillThreshold(long maxBytesInMemory) {
+        if (maxBytesInMemory < 0)
+            throw new DataPackageException("Data spill threshold must not be negative");
+        this.dataSpillThreshold = maxBytesInMemory;
+    }
+
+    /**
+     * @return the directory spilled data is written to, null for the default temp directory
+     */
+    @JsonIgnore
+    public Path getDataSpillDirectory() {
+        return dataSpillDirectory;
+    }
+
+    /**
+     * Set the directory spilled data is written to. The files are deleted once the Lists reading them are
+     * garbage collected, or when the JVM exits.
+     *
+     * @param directory a directory on local disk, null for the default temp directory
+     */
+    public void setDataSpillDirectory(Path directory) {
+        this.dataSpillDirectory = directory;
+    }
+
+    /**
+     * @return true if foreign key indexes are persisted next to the Package
+     */
+    @JsonIgnore
+    public boolean isForeignKeyIndexPersistent() {
+        return foreignKeyIndexPersistent;
+    }
+
+    /**
+     * Persist foreign key indexes in a `.index` directory next to the Package, and reuse them on later loads
+     * of the Package instead of re-reading the referenced Resources. An index is rebuilt if the referenced
+     * Resource changed, detected by its `hash` property and the size and modification time of its files.
+     * Indexes over inline data or URL-based Resources without a `hash` are not persisted.
+     *
+     * For packages read from a ZIP archive, the indexes are kept in `.index/<archive name>` in the
+     * directory containing the archive; the archive is not modified. If the directory is not writable,
+     * indexes are built as usual.
+     *
+     * @param persistent true to persist foreign key indexes
+     */
+    public void setForeignKeyIndexPersistent(boolean persistent) {
+        this.foreignKeyIndexPersistent = persistent;
+    }
+
+    /**
+     * @return the directory foreign key indexes are persisted in, null if they are not persisted or the Package
+     * was not read from the local file system
+     */
+    @JsonIgnore
+    public Path getForeignKeyIndexDirectory() {
+        Path base = getBasePath();
+        if (!foreignKeyIndexPersistent || (null == base))
+            return null;
+        if (isArchivePackage) {
+            return base.toAbsolutePath().getParent()
+                    .resolve(FOREIGN_KEY_INDEX_DIRECTORY)
+                    .resolve(base.getFileName().toString());
+        }
+        return base.resolve(FOREIGN_KEY_INDEX_DIRECTORY);
+    }
+
+    /**
+     * @return the executor Resources are validated on, null if they are validated sequentially
+     */
+    @JsonIgnore
+    public ExecutorService getValidationExecutor() {
+        return validationExecutor;
+    }
+
+    /**
+     * Validate the Resources of this Package in parallel on `executor`. The foreign key indexes of each Resource
+     * are then also built concurrently, and indexes are shared between all Resources referencing the same fields.
+     * Validation errors are collected per Resource, and if strict validation fails, the exception of the first
+     * failing Resource is thrown, so the outcome is the same as with sequential validation.
+     *
+     * The executor is not shut down by the Package.
+     *
+     * @param executor the executor to validate on, eg. a {@link java.util.concurrent.ForkJoinPool},
+     *                 or null to validate sequentially
+     */
+    public void setValidationExecutor(ExecutorService executor) {
+        this.validationExecutor = executor;
+    }
+
+    /**
+     * @return the cache of referenced Resources indexed by key, shared by all iterators resolving relations
+     */
+    @JsonIgnore
+    public RelationIndexCache getRelationIndexCache() {
+        return relationIndexCache;
+    }
+
+    /**
+     * Set the memory budget for indexes of referenced Resources that are kept between iterations with relations.
+     * Indexes beyond the budget are evicted, least recently used first, and rebuilt when needed again.
+     *
+     * @param maxBytes the budget in bytes, 0 to not keep indexes between iterations
+     */
+    public void setRelationCacheBudget(long maxBytes) {
+        if (maxBytes < 0)
+            throw new IllegalArgumentException("Relation cache budget must not be negative: " + maxBytes);
+        this.relationIndexCache = new RelationIndexCache(maxBytes);
+    }
+
+    /**
+     * @return the cache of the tables loaded by the Resources of this Package, null if Resources keep their
+     * tables once loaded
+     */
+    @JsonIgnore
+    public TableCache getTableCache() {
+        return tableCache;
+    }
+
+    /**
+     * Bound the tables the Resources of this Package keep loaded. Beyond `maxEntries` Resources or `maxBytes`
+     * of estimated table size, the tables of the least recently read Resources are released and loaded again
+     * when needed. Tables loaded before the cache was set are not released.
+     *
+     * @param maxEntries the maximum number of Resources whose tables are kept
+     * @param maxBytes the budget in bytes
+     */
+    public void setTableCacheBudget(int maxEntries, long maxBytes) {
+        this.tableCache = new TableCache(maxEntries, maxBytes);
+    }
+
     public void addContributor (Contributor contributor) {
         if (null == contributor)
             return;
@@ -501,7 +924,14 @@ public class Package extends JSONBase{
      * Remove a {@link Resource}s from the Package. If no resource with a name matching `name`, no exception is thrown
      */
     public void removeResource(String name){
-        this.resources.removeIf(resource -> resource.getName().equalsIgnoreCase(name));
+        this.resources.removeIf(resource -> {
+            if (!resource.getName().equalsIgnoreCase(name))
+                return false;
+            if (resource instanceof AbstractResource)
+                ((AbstractResource<?>) resource).setDatapackage(null);
+            return true;
+        });
+        relationIndexCache.clear();
     }
 
     public void removeContributor (Contributor contributor) {
@@ -670,16 +1100,15 @@ public class Package extends JSONBase{
 
     /**
      * Validation is strict or lenient depending on how the package was
-     * instantiated with the strict flag.
+     * instantiated with the strict flag. Resources are validated in parallel if
+     * a validation executor is set, see {@link #setValidationExecutor(ExecutorService)}.
      * @throws IOException if something goes wrong reading the datapackage
      * @throws DataPackageException if validation fails and validation is strict
      */
     final void validate() throws IOException, DataPackageException{
         try{
             ObjectNode jsonNode = this.getJsonNode();
-            for (Resource r : this.getResources()) {
-                r.validate(this);
-            }
+            validateResources();
             Validator.validate(jsonNode);
         } catch(ValidationException | DataPackageException ve){
             if (this.strictValidation){
@@ -767,6 +1196,15 @@ public class Package extends JSONBase{
 
 
     private void setJson(ObjectNode jsonNodeSource) throws Exception {
+        setJson(jsonNodeSource, null);
+    }
+
+    /*
+     * `resourceFutures` hold the Resources of the descriptor, already created on another thread, or are null to
+     * create the Resources here.
+     */
+    private void setJson(ObjectNode jsonNodeSource, List<CompletableFuture<Resource>> resourceFutures)
+            throws Exception {
         this.jsonObject = jsonNodeSource;
 
         // Create Resource list, if there are resources.
@@ -776,7 +1214,9 @@ public class Package extends JSONBase{
                 ObjectNode resourceJson = (ObjectNode) resourcesJsonArray.get(i);
                 Resource resource = null;
                 try {
-                    resource = Resource.fromJSON(resourceJson, basePath, isArchivePackage);
+                    resource = (null != resourceFutures)
+                            ? join(resourceFutures.get(i))
+                            : Resource.fromJSON(resourceJson, basePath, isArchivePackage);
                 } catch (DataPackageException dpe) {
                     if(this.strictValidation){
                         this.jsonObject = null;
@@ -838,10 +1278,110 @@ public class Package extends JSONBase{
                 this.setProperty(k, obj);
             }
         });
-        resources.forEach((r) -> r.validate(this));
+        validateResources();
         validate();
     }
 
+    // the result of a completed future, rethrowing the exception it failed with
+    private static <R> R join(CompletableFuture<R> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof Exception)
+                throw (Exception) ex.getCause();
+            throw ex;
+        }
+    }
+
+    /**
+     * Check the data of all Resources against their foreign keys and report every violating row, instead of
+     * stopping at the first one. Only a capped number of example violations is retained per foreign key,
+     * so the memory needed does not depend on the number of violations. The data of all Resources with
+     * foreign keys is read, in parallel if a validation executor is set.
+     *
+     * @return the violation counts and examples per foreign key
+     * @throws DataPackageValidationException if a foreign key is invalid or reading data fails
+     */
+    public ForeignKeyValidationReport checkRelations() {
+        ForeignKeyValidationReport report = new ForeignKeyValidationReport();
+        checkRelations(report);
+        return report;
+    }
+
+    /**
+     * Check the data of all Resources against their foreign keys and stream every violating row to `sink`.
+     * The sink must be thread-safe if a validation executor is set.
+     *
+     * @param sink receives the violations
+     * @throws DataPackageValidationException if a foreign key is invalid or reading data fails
+     */
+    public void checkRelations(ForeignKeyViolationSink sink) {
+        forEachResource((r, cache) -> {
+            try {
+                r.checkRelations(this, sink, cache);
+            } catch (DataPackageException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new DataPackageValidationException(ex);
+            }
+        });
+    }
+
+    /**
+     * Validate all Resources, sharing foreign key indexes between them.
+     */
+    private void validateResources() {
+        forEachResource((r, cache) -> r.validate(this, cache));
+    }
+
+    /**
+     * Run `action` on all Resources, sharing foreign key indexes between them through a cache that lives for this
+     * run only, so concurrent runs do not share or close each other's indexes. If a validation executor is set,
+     * Resources are processed concurrently, and the first exception in Resource order is rethrown once all
+     * Resources are done.
+     */
+    private void forEachResource(BiConsumer<Resource, ForeignKeyIndexCache> action) {
+        List<Resource> toProcess = new ArrayList<>(resources);
+        ForeignKeyIndexCache cache = new ForeignKeyIndexCache();
+        try {
+            if ((null == validationExecutor) || (toProcess.size() < 2)) {
+                for (Resource r : toProcess) {
+                    action.accept(r, cache);
+                }
+                return;
+            }
+            List<Future<?>> futures = new ArrayList<>();
+            for (Resource r : toProcess) {
+                futures.add(validationExecutor.submit(() -> action.accept(r, cache)));
+            }
+            RuntimeException failure = null;
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    if (null == failure)
+                        failure = new DataPackageException("Interrupted while validating resources", ex);
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof Error)
+                        throw (Error) ex.getCause();
+                    if (null == failure) {
+                        failure = (ex.getCause() instanceof RuntimeException)
+                                ? (RuntimeException) ex.getCause()
+                                : new DataPackageException(ex.getCause());
+                    }
+                }
+            }
+            if (null != failure)
+                throw failure;
+        } finally {
+            try {
+                cache.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
     /**
      * DataPackage version SHOULD be SemVer, but sloppy versions are acceptable.
      *
@@ -911,6 +1451,9 @@ public class Package extends JSONBase{
             dpe = checkDuplicates(resource);
         }
         this.resources.add(resource);
+        if (resource instanceof AbstractResource)
+            ((AbstractResource<?>) resource).setDatapackage(this);
+        relationIndexCache.clear();
         if (validate)
             validate(dpe);
     }
@@ -0,0 +1,122 @@
+package io.frictionlessdata.datapackage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Open, reference-counted {@link ZipFile} of an archive Package, with an index of its entries.
+ *
+ * An archive is opened once and shared by everyone who acquires it while it is open, so the central directory
+ * is parsed once, not for every descriptor, schema, dialect and data file read from the archive. A
+ * {@link Package} read from a ZIP file holds a reference until it is closed. If the file changes on disk,
+ * the next {@link #acquire(Path)} opens it anew; holders of the old handle keep it until they release it.
+ */
+final class ZipArchive implements Closeable {
+    private static final Map<Path, ZipArchive> openArchives = new HashMap<>();
+
+    private final Path path;
+    private final ZipFile zipFile;
+    private final long size;
+    private final long lastModified;
+    private final Map<String, ZipEntry> entries = new HashMap<>();
+    // entries one directory level down, by their name relative to that directory
+    private final Map<String, ZipEntry> nestedEntries = new HashMap<>();
+    private int references = 1;
+
+    private ZipArchive(Path path, BasicFileAttributes attributes) throws IOException {
+        this.path = path;
+        this.size = attributes.size();
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.zipFile = new ZipFile(path.toFile());
+        index();
+    }
+
+    /**
+     * Acquire the archive at `path`, opening it if it is not open yet. Each call must be matched by a call
+     * to {@link #close()}.
+     *
+     * @param path the ZIP file
+     * @return the open archive
+     * @throws IOException if the ZIP file cannot be opened
+     */
+    static ZipArchive acquire(Path path) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        synchronized (openArchives) {
+            ZipArchive archive = openArchives.get(key);
+            if ((null != archive) && (archive.size == attributes.size())
+                    && (archive.lastModified == attributes.lastModifiedTime().toMillis())) {
+                archive.references++;
+                return archive;
+            }
+            archive = new ZipArchive(key, attributes);
+            openArchives.put(key, archive);
+            return archive;
+        }
+    }
+
+    /**
+     * Look for the `fileName` entry. If it is not on the top-level, look into directories (but only one
+     * level deep) for it, in the order of the directories in the archive.
+     *
+     * @param fileName name of the entry we are looking for
+     * @return ZipEntry if found, null otherwise
+     */
+    ZipEntry getEntry(String fileName) {
+        ZipEntry entry = entries.get(fileName);
+        return (null != entry) ? entry : nestedEntries.get(fileName);
+    }
+
+    InputStream getInputStream(ZipEntry entry) throws IOException {
+        return zipFile.getInputStream(entry);
+    }
+
+    /**
+     * Release this reference to the archive. The ZipFile is closed when the last reference is released.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (openArchives) {
+            if (references == 0)
+                return;
+            if (--references > 0)
+                return;
+            openArchives.remove(path, this);
+        }
+        zipFile.close();
+    }
+
+    private void index() {
+        // position of every directory entry in the archive, the first directory holding a name wins
+        Map<String, Integer> directories = new HashMap<>();
+        Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            ZipEntry entry = zipEntries.nextElement();
+            entries.putIfAbsent(entry.getName(), entry);
+            if (entry.isDirectory())
+                directories.putIfAbsent(entry.getName(), directories.size());
+        }
+        Map<String, Integer> nestedPositions = new HashMap<>();
+        for (ZipEntry entry : entries.values()) {
+            String name = entry.getName();
+            for (int pos = name.indexOf('/'); (pos >= 0) && (pos < name.length() - 1); pos = name.indexOf('/', pos + 1)) {
+                Integer position = directories.get(name.substring(0, pos + 1));
+                if (null == position)
+                    continue;
+                String relativeName = name.substring(pos + 1);
+                Integer existing = nestedPositions.get(relativeName);
+                if ((null == existing) || (position < existing)) {
+                    nestedPositions.put(relativeName, position);
+                    nestedEntries.put(relativeName, entry);
+                }
+            }
+        }
+    }
+}
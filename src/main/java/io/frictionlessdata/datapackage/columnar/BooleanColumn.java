@@ -0,0 +1,64 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Column of boolean values in a bitmap, one bit per row.
+ */
+public final class BooleanColumn extends Column {
+    private final BitSet values;
+
+    private BooleanColumn(String name, int size, BitSet nulls, BitSet values) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the value of the row, false if it is null
+     */
+    public boolean getBoolean(int row) {
+        checkIndex(row);
+        return values.get(row);
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values.get(row);
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return values.size() / 8 + getNullsBytes();
+    }
+
+    static final class Builder extends ColumnBuilder {
+        private final BitSet values = new BitSet();
+
+        Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        void addNull() {
+        }
+
+        @Override
+        boolean addValue(Object value) {
+            if (!(value instanceof Boolean))
+                return false;
+            values.set(size, (Boolean) value);
+            return true;
+        }
+
+        @Override
+        Object get(int row) {
+            return values.get(row);
+        }
+
+        @Override
+        Column build() {
+            return new BooleanColumn(name, size, nulls, values);
+        }
+    }
+}
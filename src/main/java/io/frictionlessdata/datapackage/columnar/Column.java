@@ -0,0 +1,60 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.util.BitSet;
+
+/**
+ * A column of a {@link ColumnarTable}. Values are kept in a primitive array or dictionary-encoded, nulls are
+ * tracked in a bitmap. Subclasses add accessors that return values without boxing them.
+ */
+public abstract class Column {
+    private final String name;
+    private final int size;
+    private final BitSet nulls;
+
+    Column(String name, int size, BitSet nulls) {
+        this.name = name;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of values in this column
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return true if the value of the row is null
+     */
+    public boolean isNull(int row) {
+        checkIndex(row);
+        return nulls.get(row);
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the value of the row, boxed, or null
+     */
+    public abstract Object get(int row);
+
+    /**
+     * @return an estimate of the heap used by this column in bytes
+     */
+    public abstract long getEstimatedBytes();
+
+    long getNullsBytes() {
+        return nulls.size() / 8;
+    }
+
+    void checkIndex(int row) {
+        if ((row < 0) || (row >= size))
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for column '" + name
+                    + "' with " + size + " rows");
+    }
+}
@@ -0,0 +1,78 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Collects the values of one column while a {@link ColumnarTable} is read. A builder that cannot hold a
+ * value, e.g. an integer that does not fit into a `long`, returns a replacement builder that holds the values
+ * added so far.
+ */
+abstract class ColumnBuilder {
+    static final int INITIAL_CAPACITY = 1024;
+
+    final String name;
+    final BitSet nulls = new BitSet();
+    int size;
+
+    ColumnBuilder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @param value the next value of the column, or null
+     * @return this builder, or the builder that replaces it
+     */
+    final ColumnBuilder add(Object value) {
+        if (null == value) {
+            nulls.set(size);
+            addNull();
+            size++;
+            return this;
+        }
+        if (!addValue(value)) {
+            ColumnBuilder replacement = toDictionary();
+            replacement.addValue(value);
+            replacement.size++;
+            return replacement;
+        }
+        size++;
+        return this;
+    }
+
+    /**
+     * Reserve the slot of a null value.
+     */
+    abstract void addNull();
+
+    /**
+     * @param value a value that is not null
+     * @return false if the builder cannot hold the value
+     */
+    abstract boolean addValue(Object value);
+
+    /**
+     * @return the value at `row` as added, the row must not be null
+     */
+    abstract Object get(int row);
+
+    abstract Column build();
+
+    /**
+     * @return a dictionary builder holding the values added so far
+     */
+    ColumnBuilder toDictionary() {
+        DictionaryColumn.Builder retVal = new DictionaryColumn.Builder(name);
+        for (int i = 0; i < size; i++) {
+            retVal.add(nulls.get(i) ? null : get(i));
+        }
+        return retVal;
+    }
+
+    /**
+     * @param capacity the current capacity of a value array
+     * @return the capacity to grow the array to
+     */
+    static int grow(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+}
@@ -0,0 +1,159 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import io.frictionlessdata.tableschema.field.Field;
+import io.frictionlessdata.tableschema.schema.Schema;
+
+import java.util.*;
+
+/**
+ * The data of a Resource held column by column, see {@link io.frictionlessdata.datapackage.resource.Resource#toColumnar()}.
+ *
+ * The column types follow the Schema: `integer` fields are stored in a {@link LongColumn}, `number` fields in a
+ * {@link DoubleColumn}, `boolean` fields in a {@link BooleanColumn}, and all other fields, as well as all
+ * fields of Resources without a Schema, in a {@link DictionaryColumn}. An integer column holding a value that
+ * does not fit into a `long` falls back to a dictionary column.
+ *
+ * This keeps a Resource in a fraction of the heap of the rows returned by
+ * {@link io.frictionlessdata.datapackage.resource.Resource#getMappedData(boolean)}, which box every value and
+ * hold a Map per row. A ColumnarTable is immutable and can be read by several threads at once.
+ */
+public final class ColumnarTable {
+    private static final String TYPE_INTEGER = "integer";
+    private static final String TYPE_NUMBER = "number";
+    private static final String TYPE_BOOLEAN = "boolean";
+
+    private final Column[] columns;
+    private final int rowCount;
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+
+    private ColumnarTable(Column[] columns, int rowCount) {
+        this.columns = columns;
+        this.rowCount = rowCount;
+        for (int i = 0; i < columns.length; i++) {
+            columnIndex.putIfAbsent(columns[i].getName(), i);
+        }
+    }
+
+    /**
+     * @param names the names of the columns
+     * @param schema the Schema the column types are taken from, or null to store all values in dictionary columns
+     * @param rows the rows, each holding one value per column in the order of `names`
+     * @return the table
+     */
+    public static ColumnarTable from(String[] names, Schema schema, Iterator<Object[]> rows) {
+        ColumnBuilder[] builders = new ColumnBuilder[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Field<?> field = (null != schema) ? schema.getField(names[i]) : null;
+            builders[i] = builder(names[i], (null != field) ? field.getType() : null);
+        }
+        int rowCount = 0;
+        while (rows.hasNext()) {
+            Object[] row = rows.next();
+            for (int i = 0; i < builders.length; i++) {
+                builders[i] = builders[i].add((i < row.length) ? row[i] : null);
+            }
+            rowCount++;
+        }
+        Column[] columns = new Column[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            columns[i] = builders[i].build();
+        }
+        return new ColumnarTable(columns, rowCount);
+    }
+
+    private static ColumnBuilder builder(String name, String type) {
+        if (TYPE_INTEGER.equals(type))
+            return new LongColumn.Builder(name);
+        if (TYPE_NUMBER.equals(type))
+            return new DoubleColumn.Builder(name);
+        if (TYPE_BOOLEAN.equals(type))
+            return new BooleanColumn.Builder(name);
+        return new DictionaryColumn.Builder(name);
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public String[] getColumnNames() {
+        String[] retVal = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            retVal[i] = columns[i].getName();
+        }
+        return retVal;
+    }
+
+    /**
+     * @param column the index of the column
+     * @return the column
+     */
+    public Column getColumn(int column) {
+        return columns[column];
+    }
+
+    /**
+     * @param name the name of a column
+     * @return the column, or null if there is no column with that name
+     */
+    public Column getColumn(String name) {
+        Integer index = columnIndex.get(name);
+        return (null != index) ? columns[index] : null;
+    }
+
+    /**
+     * @param row the index of the row
+     * @param column the index of the column
+     * @return the value, boxed, or null
+     */
+    public Object getValue(int row, int column) {
+        return columns[column].get(row);
+    }
+
+    /**
+     * Values are boxed to the type of their column, which differs from the types of
+     * {@link io.frictionlessdata.datapackage.resource.Resource#getMappedData(boolean)}: integers are returned as
+     * {@link Long} instead of {@link java.math.BigInteger}, and numbers as {@link Double}, rounded, instead of
+     * {@link java.math.BigDecimal}.
+     *
+     * @param row the index of the row
+     * @return the values of the row, boxed, in column order
+     */
+    public Object[] getRow(int row) {
+        Object[] retVal = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            retVal[i] = columns[i].get(row);
+        }
+        return retVal;
+    }
+
+    /**
+     * Values are boxed like by {@link #getRow(int)}, so `integer` values are {@link Long}s and `number` values
+     * {@link Double}s, not the {@link java.math.BigInteger}s and {@link java.math.BigDecimal}s of
+     * {@link io.frictionlessdata.datapackage.resource.Resource#getMappedData(boolean)}.
+     *
+     * @param row the index of the row
+     * @return the values of the row as a Map of column name to value
+     */
+    public Map<String, Object> getMappedRow(int row) {
+        Map<String, Object> retVal = new LinkedHashMap<>();
+        for (Column column : columns) {
+            retVal.put(column.getName(), column.get(row));
+        }
+        return retVal;
+    }
+
+    /**
+     * @return an estimate of the heap used by the columns in bytes
+     */
+    public long getEstimatedBytes() {
+        long retVal = 0;
+        for (Column column : columns) {
+            retVal += column.getEstimatedBytes();
+        }
+        return retVal;
+    }
+}
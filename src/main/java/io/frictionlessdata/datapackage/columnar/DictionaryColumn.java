@@ -0,0 +1,116 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.util.*;
+
+/**
+ * Dictionary-encoded column: each distinct value is kept once, rows hold an `int` code into the dictionary.
+ * Used for strings and for all other types without a primitive column, like dates, so repeated values cost
+ * 4 bytes per row.
+ */
+public final class DictionaryColumn extends Column {
+    private final int[] codes;
+    private final Object[] dictionary;
+
+    private DictionaryColumn(String name, int size, BitSet nulls, int[] codes, Object[] dictionary) {
+        super(name, size, nulls);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the dictionary code of the value of the row, -1 if it is null
+     */
+    public int getCode(int row) {
+        checkIndex(row);
+        return codes[row];
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the value of the row as a String, or null
+     */
+    public String getString(int row) {
+        Object value = get(row);
+        return (null != value) ? value.toString() : null;
+    }
+
+    /**
+     * @return the number of distinct values
+     */
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * @param code a dictionary code
+     * @return the value with the code
+     */
+    public Object getDictionaryValue(int code) {
+        return dictionary[code];
+    }
+
+    @Override
+    public Object get(int row) {
+        int code = getCode(row);
+        return (code < 0) ? null : dictionary[code];
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        long retVal = 4L * codes.length + getNullsBytes() + 8L * dictionary.length;
+        for (Object value : dictionary) {
+            // object header and fields, plus the characters of Strings
+            retVal += (value instanceof String) ? 40 + 2L * ((String) value).length() : 32;
+        }
+        return retVal;
+    }
+
+    static final class Builder extends ColumnBuilder {
+        private int[] codes = new int[0];
+        private final Map<Object, Integer> index = new HashMap<>();
+        private final List<Object> dictionary = new ArrayList<>();
+
+        Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        void addNull() {
+            append(-1);
+        }
+
+        @Override
+        boolean addValue(Object value) {
+            Integer code = index.get(value);
+            if (null == code) {
+                code = dictionary.size();
+                index.put(value, code);
+                dictionary.add(value);
+            }
+            append(code);
+            return true;
+        }
+
+        private void append(int code) {
+            if (size == codes.length)
+                codes = Arrays.copyOf(codes, grow(codes.length));
+            codes[size] = code;
+        }
+
+        @Override
+        Object get(int row) {
+            return dictionary.get(codes[row]);
+        }
+
+        @Override
+        ColumnBuilder toDictionary() {
+            return this;
+        }
+
+        @Override
+        Column build() {
+            return new DictionaryColumn(name, size, nulls, Arrays.copyOf(codes, size), dictionary.toArray());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Column of number values in a `double[]`, 8 bytes per row instead of a boxed
+ * {@link java.math.BigDecimal}. Values are rounded to the nearest `double`.
+ */
+public final class DoubleColumn extends Column {
+    private final double[] values;
+
+    private DoubleColumn(String name, int size, BitSet nulls, double[] values) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the value of the row, 0 if it is null
+     */
+    public double getDouble(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return 8L * values.length + getNullsBytes();
+    }
+
+    static final class Builder extends ColumnBuilder {
+        private double[] values = new double[0];
+
+        Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        void addNull() {
+            append(0);
+        }
+
+        @Override
+        boolean addValue(Object value) {
+            if (!(value instanceof Number))
+                return false;
+            append(((Number) value).doubleValue());
+            return true;
+        }
+
+        private void append(double value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(values.length));
+            values[size] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column build() {
+            return new DoubleColumn(name, size, nulls, Arrays.copyOf(values, size));
+        }
+    }
+}
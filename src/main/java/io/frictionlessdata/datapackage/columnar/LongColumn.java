@@ -0,0 +1,79 @@
+package io.frictionlessdata.datapackage.columnar;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Column of integer values in a `long[]`, 8 bytes per row instead of a boxed {@link BigInteger}.
+ */
+public final class LongColumn extends Column {
+    private final long[] values;
+
+    private LongColumn(String name, int size, BitSet nulls, long[] values) {
+        super(name, size, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @param row the index of the row
+     * @return the value of the row, 0 if it is null
+     */
+    public long getLong(int row) {
+        checkIndex(row);
+        return values[row];
+    }
+
+    @Override
+    public Object get(int row) {
+        return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return 8L * values.length + getNullsBytes();
+    }
+
+    static final class Builder extends ColumnBuilder {
+        private long[] values = new long[0];
+
+        Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        void addNull() {
+            append(0);
+        }
+
+        @Override
+        boolean addValue(Object value) {
+            if ((value instanceof Long) || (value instanceof Integer) || (value instanceof Short)
+                    || (value instanceof Byte)) {
+                append(((Number) value).longValue());
+                return true;
+            }
+            if ((value instanceof BigInteger) && (((BigInteger) value).bitLength() < 64)) {
+                append(((BigInteger) value).longValue());
+                return true;
+            }
+            return false;
+        }
+
+        private void append(long value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, grow(values.length));
+            values[size] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+
+        @Override
+        Column build() {
+            return new LongColumn(name, size, nulls, Arrays.copyOf(values, size));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Bloom filter in front of a {@link SpillingKeySet}. Lookups of keys that are not in the set are answered
+ * without reading from disk, with a false positive rate of about 2% at the default 8 bits per key.
+ *
+ * The bits are held in a {@link LongBuffer}, on the heap or off-heap.
+ */
+final class BloomFilter {
+    private static final int BITS_PER_KEY = 8;
+    private static final int HASH_FUNCTIONS = 5;
+    private static final long MIN_BITS = Long.SIZE;
+    // 512 MB
+    private static final long MAX_BITS = 1L << 32;
+
+    private final LongBuffer bits;
+    private final long mask;
+
+    private BloomFilter(long numBits, boolean offHeap) {
+        int bytes = (int) (numBits / Byte.SIZE);
+        ByteBuffer buf = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        this.bits = buf.asLongBuffer();
+        this.mask = numBits - 1;
+    }
+
+    static BloomFilter create(long expectedKeys, boolean offHeap) {
+        long wanted = Math.max(MIN_BITS, Math.min(MAX_BITS, expectedKeys * BITS_PER_KEY));
+        long numBits = Long.highestOneBit(wanted);
+        if (numBits < wanted)
+            numBits <<= 1;
+        return new BloomFilter(numBits, offHeap);
+    }
+
+    static BloomFilter read(DataInputStream in, boolean offHeap) throws IOException {
+        long numBits = in.readLong();
+        if ((numBits < MIN_BITS) || (numBits > MAX_BITS) || (Long.bitCount(numBits) != 1))
+            throw new IOException("Invalid Bloom filter size: " + numBits);
+        BloomFilter retVal = new BloomFilter(numBits, offHeap);
+        for (int i = 0; i < retVal.bits.capacity(); i++) {
+            retVal.bits.put(i, in.readLong());
+        }
+        return retVal;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeLong(mask + 1);
+        for (int i = 0; i < bits.capacity(); i++) {
+            out.writeLong(bits.get(i));
+        }
+    }
+
+    void add(int hash, int length) {
+        long h1 = LongKeySet.mix(((long) length << 32) | (hash & 0xFFFFFFFFL));
+        long h2 = LongKeySet.mix(h1) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            long bit = (h1 + i * h2) & mask;
+            int word = (int) (bit >>> 6);
+            bits.put(word, bits.get(word) | (1L << bit));
+        }
+    }
+
+    boolean mightContain(int hash, int length) {
+        long h1 = LongKeySet.mix(((long) length << 32) | (hash & 0xFFFFFFFFL));
+        long h2 = LongKeySet.mix(h1) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+}
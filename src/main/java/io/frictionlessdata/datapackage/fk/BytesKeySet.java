@@ -0,0 +1,205 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Hash set of byte sequences (UTF-8 encoded strings or encoded key tuples). The key bytes are appended to
+ * a slab buffer, prefixed with their length; the hash table only holds the slab offset and the hash of each key.
+ * Compared to a HashSet of Strings this avoids one String and one hash node object per key.
+ *
+ * Like {@link LongKeySet}, the set is split into independently growing segments, and buffers can be
+ * allocated off-heap.
+ */
+final class BytesKeySet {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 28;
+    private static final int MIN_SLAB_SIZE = 256;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final boolean offHeap;
+    // slab offset of the key + 1, 0 marks a free slot
+    private final IntBuffer[] offsets = new IntBuffer[SEGMENTS];
+    private final IntBuffer[] hashes = new IntBuffer[SEGMENTS];
+    private final ByteBuffer[] slabs = new ByteBuffer[SEGMENTS];
+    private final int[] slabPositions = new int[SEGMENTS];
+    private final int[] sizes = new int[SEGMENTS];
+    private long size;
+
+    BytesKeySet(boolean offHeap) {
+        this.offHeap = offHeap;
+        for (int i = 0; i < SEGMENTS; i++) {
+            offsets[i] = allocate(MIN_SEGMENT_CAPACITY * Integer.BYTES).asIntBuffer();
+            hashes[i] = allocate(MIN_SEGMENT_CAPACITY * Integer.BYTES).asIntBuffer();
+            slabs[i] = allocate(MIN_SLAB_SIZE);
+        }
+    }
+
+    boolean add(byte[] key) {
+        int hash = hash(key);
+        int segment = segment(hash);
+        if (sizes[segment] + 1 > offsets[segment].capacity() * LOAD_FACTOR) {
+            grow(segment);
+        }
+        int slot = find(segment, hash, key);
+        if (offsets[segment].get(slot) != 0)
+            return false;
+        int offset = append(segment, key);
+        offsets[segment].put(slot, offset + 1);
+        hashes[segment].put(slot, hash);
+        sizes[segment]++;
+        size++;
+        return true;
+    }
+
+    boolean contains(byte[] key) {
+        int hash = hash(key);
+        int segment = segment(hash);
+        return offsets[segment].get(find(segment, hash, key)) != 0;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Pass each key in the set to `action`, in no particular order.
+     * @param action receives a copy of the key bytes
+     */
+    void forEach(Consumer<byte[]> action) {
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            ByteBuffer slab = slabs[segment];
+            int pos = 0;
+            while (pos < slabPositions[segment]) {
+                int len = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = slab.get(pos++);
+                    len |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                byte[] key = new byte[len];
+                slab.get(pos, key);
+                pos += len;
+                action.accept(key);
+            }
+        }
+    }
+
+    // returns the slot holding `key` or the free slot where it would be inserted
+    private int find(int segment, int hash, byte[] key) {
+        IntBuffer offs = offsets[segment];
+        IntBuffer hs = hashes[segment];
+        int mask = offs.capacity() - 1;
+        int pos = hash & mask;
+        while (true) {
+            int offset = offs.get(pos);
+            if (offset == 0)
+                return pos;
+            if ((hs.get(pos) == hash) && equalsAt(slabs[segment], offset - 1, key))
+                return pos;
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private static boolean equalsAt(ByteBuffer slab, int offset, byte[] key) {
+        int len = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = slab.get(offset++);
+            len |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (len != key.length)
+            return false;
+        for (int i = 0; i < len; i++) {
+            if (slab.get(offset + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private int append(int segment, byte[] key) {
+        ByteBuffer slab = slabs[segment];
+        int offset = slabPositions[segment];
+        long required = (long) offset + 5 + key.length;
+        if (required > slab.capacity()) {
+            if (required > Integer.MAX_VALUE) {
+                throw new DataPackageException("Key set exceeds the maximum in-memory capacity, " +
+                        "consider spilling foreign key indexes to disk");
+            }
+            ByteBuffer newSlab = allocate((int) Math.min(Integer.MAX_VALUE, Math.max(required, 2L * slab.capacity())));
+            ByteBuffer src = slab.duplicate();
+            src.position(0).limit(offset);
+            newSlab.put(src);
+            slab = newSlab;
+            slabs[segment] = slab;
+        }
+        int pos = offset;
+        int len = key.length;
+        while ((len & ~0x7F) != 0) {
+            slab.put(pos++, (byte) ((len & 0x7F) | 0x80));
+            len >>>= 7;
+        }
+        slab.put(pos++, (byte) len);
+        slab.put(pos, key);
+        slabPositions[segment] = pos + key.length;
+        return offset;
+    }
+
+    private void grow(int segment) {
+        IntBuffer oldOffsets = offsets[segment];
+        IntBuffer oldHashes = hashes[segment];
+        int capacity = oldOffsets.capacity() << 1;
+        if (capacity > MAX_SEGMENT_CAPACITY) {
+            throw new DataPackageException("Key set exceeds the maximum in-memory capacity, " +
+                    "consider spilling foreign key indexes to disk");
+        }
+        IntBuffer newOffsets = allocate(capacity * Integer.BYTES).asIntBuffer();
+        IntBuffer newHashes = allocate(capacity * Integer.BYTES).asIntBuffer();
+        int mask = capacity - 1;
+        for (int i = 0; i < oldOffsets.capacity(); i++) {
+            int offset = oldOffsets.get(i);
+            if (offset == 0)
+                continue;
+            int hash = oldHashes.get(i);
+            int pos = hash & mask;
+            while (newOffsets.get(pos) != 0) {
+                pos = (pos + 1) & mask;
+            }
+            newOffsets.put(pos, offset);
+            newHashes.put(pos, hash);
+        }
+        offsets[segment] = newOffsets;
+        hashes[segment] = newHashes;
+    }
+
+    private ByteBuffer allocate(int bytes) {
+        return offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+    }
+
+    private static int segment(int hash) {
+        return hash >>> (Integer.SIZE - SEGMENT_BITS);
+    }
+
+    static int hash(byte[] key) {
+        int h = 1;
+        for (byte b : key) {
+            h = 31 * h + b;
+        }
+        // finalizer of MurmurHash3
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
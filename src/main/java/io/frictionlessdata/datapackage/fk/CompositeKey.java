@@ -0,0 +1,56 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Key of a multi-column foreign key: the tuple of values is encoded into a single byte sequence, so the whole
+ * tuple is stored and looked up with a single hash probe, like a single-column key.
+ */
+final class CompositeKey {
+    private final byte[] encoded;
+    private final List<?> values;
+
+    private CompositeKey(List<?> values) {
+        this.values = values;
+        this.encoded = KeyCodec.encodeTuple(values);
+    }
+
+    /**
+     * @param values the values of the key columns, in the order of the referenced fields
+     * @return the key for the tuple, or the value itself for a single-column key
+     */
+    static Object of(List<?> values) {
+        return (values.size() == 1) ? values.get(0) : new CompositeKey(values);
+    }
+
+    /**
+     * @param values the values of the key columns
+     * @return the key for the tuple, also for a single column. Unlike the values themselves, keys compare integral
+     * numbers by value, so they can be used in hash maps
+     */
+    static CompositeKey tuple(List<?> values) {
+        return new CompositeKey(values);
+    }
+
+    byte[] encoded() {
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompositeKey)) return false;
+        return Arrays.equals(encoded, ((CompositeKey) o).encoded);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(encoded);
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
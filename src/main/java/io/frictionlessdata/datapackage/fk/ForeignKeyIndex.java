@@ -0,0 +1,144 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.Package;
+import io.frictionlessdata.datapackage.resource.Resource;
+import io.frictionlessdata.tableschema.exception.ForeignKeyException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Hash index over the key values of the Resource a {@link PackageForeignKey} points to.
+ *
+ * The index is built once per foreign key by reading the referenced Resource, afterwards each
+ * lookup is a hash probe instead of a scan over all rows of the referenced Resource. This makes
+ * validating a Resource against its foreign keys linear in the number of rows on both sides.
+ *
+ * For multi-column foreign keys, the tuple of referenced values is hashed into a single compact key, so a
+ * row only matches if the whole tuple exists in one row of the referenced Resource, and the lookup costs a
+ * single probe like for single-column keys.
+ *
+ * The referenced Resource is streamed row by row and only the values of the referenced fields are
+ * retained, so the memory needed depends on the number of distinct key values, not on the
+ * size of the referenced Resource. Key values are held in type-specialized sets (primitive `long`s
+ * for integer keys, a byte slab for string keys), optionally off-heap, see
+ * {@link Package#setForeignKeyIndexOffHeap(boolean)}.
+ *
+ * If the keys of the referenced Resource do not fit into memory, the index can spill them to sorted runs on disk,
+ * see {@link Package#setForeignKeyIndexSpillThreshold(long)}. Lookups into a spilled index should be
+ * made in batches through {@link #containsAll(List)}. Indexes must be closed to delete their temporary files.
+ *
+ * Indexes can be persisted next to the Package and reused by later loads as long as the referenced data
+ * does not change, see {@link Package#setForeignKeyIndexPersistent(boolean)}.
+ */
+public class ForeignKeyIndex implements Closeable {
+
+    private final PackageForeignKey fk;
+
+    // referenced key tuples
+    private KeySet keys;
+
+    private ForeignKeyIndex(PackageForeignKey fk) {
+        this.fk = fk;
+    }
+
+    /**
+     * Read the referenced Resource of `fk` and build an index over the values of the referenced fields.
+     *
+     * @param fk the foreign key to build the index for
+     * @return the index
+     * @throws Exception if the referenced Resource cannot be found or reading its data fails
+     */
+    public static ForeignKeyIndex build(PackageForeignKey fk) throws Exception {
+        Resource<?> refResource = fk.getReferencedResource();
+        if (null == refResource) {
+            throw new ForeignKeyException("Reference resource not found: "
+                    + fk.getForeignKey().getReference().getResource());
+        }
+        ForeignKeyIndex index = new ForeignKeyIndex(fk);
+        Package pkg = fk.getDatapackage();
+        boolean offHeap = pkg.isForeignKeyIndexOffHeap();
+        long spillThreshold = pkg.getForeignKeyIndexSpillThreshold();
+        Path indexDirectory = pkg.getForeignKeyIndexDirectory();
+        IndexSidecar sidecar = (null != indexDirectory) ? IndexSidecar.of(indexDirectory, fk, refResource) : null;
+        if (null != sidecar) {
+            index.keys = sidecar.load(offHeap);
+            if (null != index.keys)
+                return index;
+        }
+        if ((spillThreshold > 0) || (null != sidecar)) {
+            index.keys = new SpillingKeySet(pkg.getForeignKeyIndexSpillDirectory(),
+                    (spillThreshold > 0) ? spillThreshold : Long.MAX_VALUE, offHeap);
+        } else {
+            index.keys = new TypedKeySet(offHeap);
+        }
+
+        List<String> refFieldNames = fk.getForeignKey().getReference().getFieldNames();
+        try {
+            Iterator<Map<String, Object>> iter = refResource.mappingIterator(false);
+            while (iter.hasNext()) {
+                Map<String, Object> refRow = iter.next();
+                List<Object> values = new ArrayList<>(refFieldNames.size());
+                for (String fieldName : refFieldNames) {
+                    values.add(refRow.get(fieldName));
+                }
+                index.keys.add(CompositeKey.of(values));
+            }
+            if (null != sidecar) {
+                sidecar.store((SpillingKeySet) index.keys);
+            } else {
+                index.keys.seal();
+            }
+        } catch (Exception ex) {
+            index.close();
+            throw ex;
+        }
+        return index;
+    }
+
+    /**
+     * Check whether a key exists in the referenced Resource.
+     *
+     * @param values the key values, in the order of the referenced fields
+     * @return true if a row of the referenced Resource holds the same values in the referenced fields
+     */
+    public boolean contains(List<?> values) {
+        return keys.contains(CompositeKey.of(values));
+    }
+
+    /**
+     * Check a batch of keys against the referenced Resource. For indexes spilled to disk, this is much
+     * faster than calling {@link #contains(List)} for each key.
+     *
+     * @param keyValues the keys to look up, each as the list of values in the order of the referenced fields
+     * @return for each key, whether the referenced Resource holds it
+     */
+    public boolean[] containsAll(List<? extends List<?>> keyValues) {
+        List<Object> lookup = new ArrayList<>(keyValues.size());
+        for (List<?> values : keyValues) {
+            lookup.add(CompositeKey.of(values));
+        }
+        return keys.containsAll(lookup);
+    }
+
+    /**
+     * @return the foreign key the index was built for. Indexes shared through a {@link ForeignKeyIndexCache}
+     * serve all foreign keys pointing to the same referenced fields
+     */
+    public PackageForeignKey getForeignKey() {
+        return fk;
+    }
+
+    /**
+     * Release the key set and delete temporary files of a spilled index.
+     */
+    @Override
+    public void close() throws IOException {
+        if (null != keys) {
+            keys.close();
+            keys = null;
+        }
+    }
+}
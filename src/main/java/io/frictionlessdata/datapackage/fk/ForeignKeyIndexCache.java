@@ -0,0 +1,155 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+import io.frictionlessdata.datapackage.resource.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shares {@link ForeignKeyIndex}es between the Resources of a Package while it is validated, so that each referenced
+ * Resource is read once per set of referenced fields, no matter how many foreign keys point to it.
+ *
+ * The cache is safe for concurrent use. An index is built by the first thread that asks for it, other threads
+ * asking for the same index wait for it to complete. Threads never wait for a build that is queued on an executor,
+ * so validation cannot deadlock on a saturated thread pool.
+ */
+public class ForeignKeyIndexCache implements Closeable {
+
+    // keyed by referenced Resource (by identity) and referenced field names
+    private final Map<List<Object>, FutureTask<ForeignKeyIndex>> indexes = new HashMap<>();
+    private boolean closed = false;
+
+    /**
+     * Return the index for `fk`, building it if no index over the same referenced fields exists yet.
+     *
+     * @param fk the foreign key to return the index for
+     * @return the index
+     * @throws Exception if building the index fails
+     */
+    public ForeignKeyIndex get(PackageForeignKey fk) throws Exception {
+        Resource<?> refResource = fk.getReferencedResource();
+        if (null == refResource) {
+            // let build() report the missing resource
+            return ForeignKeyIndex.build(fk);
+        }
+        List<Object> key = Arrays.asList(refResource, fk.getForeignKey().getReference().getFieldNames());
+        FutureTask<ForeignKeyIndex> task = new FutureTask<>(() -> ForeignKeyIndex.build(fk));
+        FutureTask<ForeignKeyIndex> existing;
+        synchronized (this) {
+            if (closed)
+                throw new DataPackageException("Foreign key index cache is closed");
+            existing = indexes.putIfAbsent(key, task);
+        }
+        if (null == existing) {
+            existing = task;
+            task.run();
+        }
+        try {
+            return existing.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw ex;
+        }
+    }
+
+    /**
+     * Return the indexes for a number of foreign keys. If an executor is given, indexes are built concurrently
+     * on it, while the calling thread builds those indexes no other thread has started yet. Before returning,
+     * builds still queued on the executor are cancelled, and builds already running are waited for.
+     *
+     * @param fks the foreign keys to return the indexes for
+     * @param executor executor to build indexes on, null to build them on the calling thread
+     * @return the indexes, in the order of `fks`
+     * @throws Exception if building an index fails. If several fail, the failure of the first foreign key is thrown
+     */
+    public Map<PackageForeignKey, ForeignKeyIndex> getAll(List<PackageForeignKey> fks, ExecutorService executor)
+            throws Exception {
+        synchronized (this) {
+            if (closed)
+                throw new DataPackageException("Foreign key index cache is closed");
+        }
+        // a build is claimed either by the executor, which runs it, or by the calling thread, which cancels it
+        List<AtomicBoolean> claims = new ArrayList<>();
+        List<Future<?>> builds = new ArrayList<>();
+        if ((null != executor) && (fks.size() > 1)) {
+            for (PackageForeignKey fk : fks) {
+                AtomicBoolean claim = new AtomicBoolean(false);
+                claims.add(claim);
+                builds.add(executor.submit(() -> {
+                    if (!claim.compareAndSet(false, true) || isClosed())
+                        return null;
+                    return get(fk);
+                }));
+            }
+        }
+        try {
+            Map<PackageForeignKey, ForeignKeyIndex> retVal = new LinkedHashMap<>();
+            for (PackageForeignKey fk : fks) {
+                retVal.put(fk, get(fk));
+            }
+            return retVal;
+        } finally {
+            awaitOrCancel(claims, builds);
+        }
+    }
+
+    private static void awaitOrCancel(List<AtomicBoolean> claims, List<Future<?>> builds) {
+        for (int i = 0; i < builds.size(); i++) {
+            Future<?> build = builds.get(i);
+            if (claims.get(i).compareAndSet(false, true)) {
+                build.cancel(false);
+                continue;
+            }
+            try {
+                build.get();
+            } catch (ExecutionException | CancellationException ignored) {
+                // failures are reported by the calling thread
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DataPackageException("Interrupted while waiting for foreign key indexes", ex);
+            }
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Close all indexes in the cache and delete their temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        List<FutureTask<ForeignKeyIndex>> tasks;
+        synchronized (this) {
+            closed = true;
+            tasks = new ArrayList<>(indexes.values());
+            indexes.clear();
+        }
+        IOException failure = null;
+        for (FutureTask<ForeignKeyIndex> task : tasks) {
+            try {
+                task.get().close();
+            } catch (ExecutionException ignored) {
+                // the build failed, there is nothing to close
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new DataPackageException("Interrupted while closing foreign key indexes", ex);
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        if (null != failure)
+            throw failure;
+    }
+}
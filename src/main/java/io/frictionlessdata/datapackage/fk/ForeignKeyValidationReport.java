@@ -0,0 +1,82 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.util.*;
+
+/**
+ * {@link ForeignKeyViolationSink} that counts all violations per foreign key, but retains only the first
+ * few of them as examples. Its memory use therefore does not depend on the number of violations, so
+ * one pass over a large Resource can report every broken foreign key.
+ */
+public class ForeignKeyValidationReport implements ForeignKeyViolationSink {
+    public static final int DEFAULT_MAX_SAMPLES = 10;
+
+    private final int maxSamples;
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+    private final Map<String, List<ForeignKeyViolation>> samples = new LinkedHashMap<>();
+    private long violationCount = 0;
+
+    public ForeignKeyValidationReport() {
+        this(DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * @param maxSamples number of example violations to retain per foreign key
+     */
+    public ForeignKeyValidationReport(int maxSamples) {
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public synchronized void accept(ForeignKeyViolation violation) {
+        String fk = violation.getForeignKey();
+        counts.merge(fk, 1L, Long::sum);
+        List<ForeignKeyViolation> fkSamples = samples.computeIfAbsent(fk, k -> new ArrayList<>());
+        if (fkSamples.size() < maxSamples) {
+            fkSamples.add(violation);
+        }
+        violationCount++;
+    }
+
+    /**
+     * @return true if no violations were reported
+     */
+    public synchronized boolean isValid() {
+        return violationCount == 0;
+    }
+
+    /**
+     * @return the total number of violations
+     */
+    public synchronized long getViolationCount() {
+        return violationCount;
+    }
+
+    /**
+     * @return number of violations per violated foreign key, see {@link ForeignKeyViolation#getForeignKey()}
+     */
+    public synchronized Map<String, Long> getViolationCounts() {
+        return new LinkedHashMap<>(counts);
+    }
+
+    /**
+     * @return the retained example violations per violated foreign key, in the order they were reported
+     */
+    public synchronized Map<String, List<ForeignKeyViolation>> getSamples() {
+        Map<String, List<ForeignKeyViolation>> retVal = new LinkedHashMap<>();
+        samples.forEach((k, v) -> retVal.put(k, new ArrayList<>(v)));
+        return retVal;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(violationCount).append(" foreign key violation(s)");
+        counts.forEach((fk, count) -> {
+            sb.append("\n").append(fk).append(": ").append(count);
+            for (ForeignKeyViolation v : samples.get(fk)) {
+                sb.append("\n  ").append(v);
+            }
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row of a Resource whose foreign key values do not exist in the referenced Resource.
+ */
+public class ForeignKeyViolation {
+    private final String resource;
+    private final long rowNumber;
+    private final List<String> fieldNames;
+    private final List<Object> values;
+    private final String referencedResource;
+    private final List<String> referencedFieldNames;
+
+    public ForeignKeyViolation(String resource, long rowNumber, List<String> fieldNames, List<Object> values,
+                               String referencedResource, List<String> referencedFieldNames) {
+        this.resource = resource;
+        this.rowNumber = rowNumber;
+        this.fieldNames = Collections.unmodifiableList(fieldNames);
+        this.values = Collections.unmodifiableList(values);
+        this.referencedResource = referencedResource;
+        this.referencedFieldNames = Collections.unmodifiableList(referencedFieldNames);
+    }
+
+    /**
+     * @return name of the Resource holding the violating row
+     */
+    public String getResource() {
+        return resource;
+    }
+
+    /**
+     * @return number of the violating row, counting data rows from 1 across all files of the Resource
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * @return the foreign key fields of the violating Resource
+     */
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * @return the key values of the violating row, in the order of {@link #getFieldNames()}
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * @return name of the referenced Resource. For self-references, this is the name of the Resource holding
+     * the foreign key
+     */
+    public String getReferencedResource() {
+        return referencedResource;
+    }
+
+    public List<String> getReferencedFieldNames() {
+        return referencedFieldNames;
+    }
+
+    /**
+     * @return a description of the violated foreign key, to group violations by
+     */
+    public String getForeignKey() {
+        return resource + " " + fieldNames + " -> " + referencedResource + " " + referencedFieldNames;
+    }
+
+    /**
+     * @return the message a {@link io.frictionlessdata.tableschema.exception.ForeignKeyException} for this
+     * violation carries
+     */
+    public String getMessage() {
+        Object fkVal = (values.size() == 1) ? values.get(0) : values;
+        return "Foreign key validation failed: "
+                + fieldNames + " -> "
+                + referencedFieldNames + ": '"
+                + fkVal + "' not found in resource '"
+                + referencedResource + "'.";
+    }
+
+    @Override
+    public String toString() {
+        return "Row " + rowNumber + " of resource '" + resource + "': " + getMessage();
+    }
+}
@@ -0,0 +1,16 @@
+package io.frictionlessdata.datapackage.fk;
+
+/**
+ * Receives foreign key violations while the data of a Package is checked, instead of validation stopping at the
+ * first violation. Implementations must be thread-safe if the Package is validated in parallel.
+ *
+ * @see ForeignKeyValidationReport
+ */
+@FunctionalInterface
+public interface ForeignKeyViolationSink {
+
+    /**
+     * @param violation a row whose foreign key values do not exist in the referenced Resource
+     */
+    void accept(ForeignKeyViolation violation);
+}
@@ -0,0 +1,214 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.JSONBase;
+import io.frictionlessdata.datapackage.resource.FilebasedResource;
+import io.frictionlessdata.datapackage.resource.Resource;
+import io.frictionlessdata.tableschema.field.Field;
+import io.frictionlessdata.tableschema.schema.Schema;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Foreign key index persisted next to a Package, so it can be reused by later loads of the Package instead of
+ * re-reading the referenced Resource.
+ *
+ * A sidecar consists of a key file in the format of a sealed {@link SpillingKeySet} and a metadata file holding
+ * the block index, the Bloom filter and a fingerprint of the referenced data. The fingerprint covers the
+ * Resource `hash` property, the size and modification time of its files, and the types of the referenced fields.
+ * File names are derived from the fingerprint, so an index is rebuilt as soon as the referenced data changes,
+ * and the outdated sidecar is deleted. Each key file gets a unique name that is recorded in the metadata file, so
+ * storing an index never overwrites a key file another load may still be reading.
+ *
+ * Only Resources whose changes can be detected are persisted: file-based Resources, and Resources declaring
+ * a `hash`.
+ */
+final class IndexSidecar {
+    private static final long MAGIC = 0x44504b464b494458L;
+    private static final int VERSION = 2;
+    private static final String KEYS_SUFFIX = ".keys";
+    private static final String META_SUFFIX = ".meta";
+
+    private final Path directory;
+    // file name prefix of all sidecars for the same referenced fields
+    private final String prefix;
+    private final String baseName;
+    private final String fingerprint;
+
+    private IndexSidecar(Path directory, String prefix, String fingerprint) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.fingerprint = fingerprint;
+        this.baseName = prefix + digest(fingerprint, 16);
+    }
+
+    /**
+     * @param directory the directory to keep sidecars in
+     * @param fk the foreign key
+     * @param refResource the Resource `fk` references
+     * @return the sidecar for the index of `fk`, null if changes of the referenced Resource cannot be detected
+     */
+    static IndexSidecar of(Path directory, PackageForeignKey fk, Resource<?> refResource) {
+        List<String> refFieldNames = fk.getForeignKey().getReference().getFieldNames();
+        String hash = (refResource instanceof JSONBase) ? ((JSONBase) refResource).getHash() : null;
+        StringBuilder sb = new StringBuilder();
+        sb.append("resource=").append(refResource.getName()).append('\n');
+        sb.append("fields=").append(refFieldNames).append('\n');
+        Schema schema = refResource.getSchema();
+        for (String fieldName : refFieldNames) {
+            Field<?> field = (null != schema) ? schema.getField(fieldName) : null;
+            sb.append("type=").append((null != field) ? field.getType() : "inferred").append('\n');
+        }
+        sb.append("format=").append(refResource.getFormat()).append('\n');
+        if (null != hash) {
+            sb.append("hash=").append(hash).append('\n');
+        }
+        if (refResource instanceof FilebasedResource) {
+            FilebasedResource fileResource = (FilebasedResource) refResource;
+            File basePath = fileResource.getBasePath();
+            try {
+                if (basePath.isFile()) {
+                    // Resource in a ZIP archive, a changed entry changes the archive
+                    appendFileStats(sb, basePath.getName(), basePath.toPath());
+                    fileResource.getPaths().forEach(p -> sb.append("entry=").append(p.getPath()).append('\n'));
+                } else {
+                    for (File path : fileResource.getPaths()) {
+                        appendFileStats(sb, path.getPath(), new File(basePath, path.getPath()).toPath());
+                    }
+                }
+            } catch (IOException ex) {
+                return null;
+            }
+        } else if (null == hash) {
+            return null;
+        }
+        String prefix = refResource.getName() + "." + digest(refFieldNames.toString(), 8) + ".";
+        return new IndexSidecar(directory, prefix, sb.toString());
+    }
+
+    /**
+     * @param offHeap whether to allocate the Bloom filter off-heap
+     * @return the persisted key set, null if there is none for the current fingerprint or it cannot be read
+     */
+    KeySet load(boolean offHeap) {
+        Path metaFile = directory.resolve(baseName + META_SUFFIX);
+        if (!Files.isRegularFile(metaFile))
+            return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(metaFile)))) {
+            if ((in.readLong() != MAGIC) || (in.readInt() != VERSION))
+                return null;
+            byte[] storedFingerprint = new byte[in.readInt()];
+            in.readFully(storedFingerprint);
+            if (!fingerprint.equals(new String(storedFingerprint, StandardCharsets.UTF_8)))
+                return null;
+            String keyFileName = in.readUTF();
+            Path keyFile = directory.resolve(keyFileName);
+            if (!keyFileName.startsWith(baseName + ".") || !keyFile.getFileName().toString().equals(keyFileName)
+                    || !Files.isRegularFile(keyFile))
+                return null;
+            return SpillingKeySet.open(keyFile, in, offHeap);
+        } catch (IOException ex) {
+            // unreadable or truncated sidecar, rebuild it
+            return null;
+        }
+    }
+
+    /**
+     * Seal `keys` into this sidecar and delete outdated sidecars of the same referenced fields. If the directory
+     * is not writable, `keys` is sealed to temporary files instead.
+     *
+     * @param keys the keys of the referenced Resource
+     * @throws IOException if writing the sidecar fails
+     */
+    void store(SpillingKeySet keys) throws IOException {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException ex) {
+            keys.seal();
+            return;
+        }
+        if (!Files.isWritable(directory)) {
+            keys.seal();
+            return;
+        }
+        // a new key file for each store, an existing one may still be mapped by another load
+        Path keyFile = Files.createTempFile(directory, baseName + ".", KEYS_SUFFIX);
+        try {
+            keys.sealTo(keyFile);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(keyFile);
+            throw ex;
+        }
+
+        // the metadata is moved into place last, so a key file without it is never used
+        Path metaFile = directory.resolve(baseName + META_SUFFIX);
+        Path tmpFile = Files.createTempFile(directory, "." + baseName, META_SUFFIX);
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeLong(MAGIC);
+                out.writeInt(VERSION);
+                byte[] fp = fingerprint.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(fp.length);
+                out.write(fp);
+                out.writeUTF(keyFile.getFileName().toString());
+                keys.writeMeta(out);
+            }
+            try {
+                Files.move(tmpFile, metaFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile, metaFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException ex) {
+            // the keys stay readable through the open mapping
+            try {
+                Files.deleteIfExists(keyFile);
+            } catch (IOException ignored) {}
+            throw ex;
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+        deleteOutdated(keyFile, metaFile);
+    }
+
+    // deletes the sidecars of other fingerprints, and key files of this one no longer referenced by the metadata
+    private void deleteOutdated(Path keyFile, Path metaFile) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(f -> {
+                String name = f.getFileName().toString();
+                return name.startsWith(prefix) && !f.equals(keyFile) && !f.equals(metaFile);
+            }).forEach(f -> {
+                try {
+                    Files.deleteIfExists(f);
+                } catch (IOException ignored) {
+                    // still in use by another process, try again next time
+                }
+            });
+        } catch (IOException ignored) {}
+    }
+
+    // the file name is recorded relative to the Package, so the Package can be moved without invalidating the index
+    private static void appendFileStats(StringBuilder sb, String name, Path path) throws IOException {
+        sb.append("file=").append(name)
+                .append(':').append(Files.size(path))
+                .append(':').append(Files.getLastModifiedTime(path).toMillis())
+                .append('\n');
+    }
+
+    private static String digest(String value, int length) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; sb.length() < length; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.substring(0, length);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
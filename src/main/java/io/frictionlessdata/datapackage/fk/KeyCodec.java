@@ -0,0 +1,74 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.math.BigInteger;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes key values into byte sequences for storage in a {@link BytesKeySet}. Each encoded value starts
+ * with a type tag so that values of different types never collide, eg. the String "1" and the integer 1.
+ *
+ * Values that are neither Strings nor integral numbers (dates, decimals, booleans...) are encoded by
+ * their class name and String representation, which matches `equals()` for the types a
+ * {@link io.frictionlessdata.tableschema.field.Field} casts to. Multi-column keys are encoded as the
+ * length-prefixed encodings of their values.
+ */
+final class KeyCodec {
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 'S';
+    private static final byte TAG_INTEGER = 'I';
+    private static final byte TAG_OTHER = 'O';
+    private static final byte TAG_TUPLE = 'T';
+
+    private KeyCodec() {}
+
+    static byte[] encode(Object value) {
+        if (null == value) {
+            return new byte[]{TAG_NULL};
+        }
+        if (value instanceof CompositeKey) {
+            return ((CompositeKey) value).encoded();
+        }
+        if (value instanceof String) {
+            return tagged(TAG_STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+        }
+        if (isIntegral(value)) {
+            BigInteger bi = (value instanceof BigInteger)
+                    ? (BigInteger) value
+                    : BigInteger.valueOf(((Number) value).longValue());
+            return tagged(TAG_INTEGER, bi.toByteArray());
+        }
+        String repr = value.getClass().getName() + '\u0000' + value;
+        return tagged(TAG_OTHER, repr.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] encodeTuple(List<?> values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(TAG_TUPLE);
+        for (Object value : values) {
+            byte[] part = encode(value);
+            int len = part.length;
+            while ((len & ~0x7F) != 0) {
+                out.write((len & 0x7F) | 0x80);
+                len >>>= 7;
+            }
+            out.write(len);
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    static boolean isIntegral(Object value) {
+        return (value instanceof Long) || (value instanceof Integer)
+                || (value instanceof Short) || (value instanceof Byte)
+                || (value instanceof BigInteger);
+    }
+
+    private static byte[] tagged(byte tag, byte[] payload) {
+        byte[] retVal = new byte[payload.length + 1];
+        retVal[0] = tag;
+        System.arraycopy(payload, 0, retVal, 1, payload.length);
+        return retVal;
+    }
+}
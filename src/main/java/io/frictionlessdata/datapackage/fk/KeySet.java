@@ -0,0 +1,60 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Set of key values used for foreign key lookups. Implementations store keys in a compact,
+ * type-specialized form instead of boxed objects in a {@link java.util.HashSet}.
+ *
+ * A key set is filled by calling {@link #add(Object)}, then {@link #seal()} is called once before the first lookup.
+ */
+interface KeySet extends Closeable {
+
+    /**
+     * Add a key to the set.
+     * @param key the key value, may be null
+     * @return true if the key was not yet part of the set. Sets that spill to disk may not know yet
+     * and return true for every key they have not seen since the last spill
+     */
+    boolean add(Object key);
+
+    /**
+     * Finish adding keys. Called once after the last {@link #add(Object)} and before the first lookup.
+     * @throws IOException if the set is backed by files and writing them fails
+     */
+    default void seal() throws IOException {}
+
+    /**
+     * @param key the key value, may be null
+     * @return true if the key is part of the set
+     */
+    boolean contains(Object key);
+
+    /**
+     * Look up a batch of keys. Sets that are backed by files override this to reorder the probes
+     * for sequential access.
+     *
+     * @param keys the key values, may contain nulls
+     * @return for each key, whether it is part of the set
+     */
+    default boolean[] containsAll(List<?> keys) {
+        boolean[] retVal = new boolean[keys.size()];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = contains(keys.get(i));
+        }
+        return retVal;
+    }
+
+    /**
+     * @return the number of distinct keys in the set
+     */
+    long size();
+
+    /**
+     * Release resources (temporary files) held by the set.
+     */
+    @Override
+    default void close() throws IOException {}
+}
@@ -0,0 +1,136 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Open-addressing hash set of primitive `long` values with linear probing. Keys are stored in
+ * {@link LongBuffer}s which live either on the Java heap or, for very large sets, off-heap in direct
+ * buffers. This needs about 11 bytes per key instead of the ~60 bytes of a boxed key in a HashSet.
+ *
+ * The table is split into segments that grow independently, so resizing never copies the whole set at once
+ * and the total capacity is not limited by the maximum size of a single buffer.
+ */
+final class LongKeySet {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+    // a single buffer can hold at most Integer.MAX_VALUE bytes
+    private static final int MAX_SEGMENT_CAPACITY = 1 << 27;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    // 0 marks a free slot, a key of 0 is tracked separately
+    private static final long FREE = 0L;
+
+    private final boolean offHeap;
+    private final LongBuffer[] tables = new LongBuffer[SEGMENTS];
+    private final int[] sizes = new int[SEGMENTS];
+    private boolean containsFree;
+    private long size;
+
+    LongKeySet(boolean offHeap) {
+        this.offHeap = offHeap;
+        for (int i = 0; i < SEGMENTS; i++) {
+            tables[i] = allocate(MIN_SEGMENT_CAPACITY);
+        }
+    }
+
+    boolean add(long key) {
+        if (key == FREE) {
+            if (containsFree)
+                return false;
+            containsFree = true;
+            size++;
+            return true;
+        }
+        long hash = mix(key);
+        int segment = segment(hash);
+        LongBuffer table = tables[segment];
+        if (sizes[segment] + 1 > table.capacity() * LOAD_FACTOR) {
+            table = grow(segment);
+        }
+        if (insert(table, hash, key)) {
+            sizes[segment]++;
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    boolean contains(long key) {
+        if (key == FREE)
+            return containsFree;
+        long hash = mix(key);
+        LongBuffer table = tables[segment(hash)];
+        int mask = table.capacity() - 1;
+        int pos = (int) hash & mask;
+        while (true) {
+            long cur = table.get(pos);
+            if (cur == FREE)
+                return false;
+            if (cur == key)
+                return true;
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    private static boolean insert(LongBuffer table, long hash, long key) {
+        int mask = table.capacity() - 1;
+        int pos = (int) hash & mask;
+        while (true) {
+            long cur = table.get(pos);
+            if (cur == FREE) {
+                table.put(pos, key);
+                return true;
+            }
+            if (cur == key)
+                return false;
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    private LongBuffer grow(int segment) {
+        LongBuffer old = tables[segment];
+        if (old.capacity() >= MAX_SEGMENT_CAPACITY) {
+            throw new DataPackageException("Key set exceeds the maximum in-memory capacity, " +
+                    "consider spilling foreign key indexes to disk");
+        }
+        LongBuffer table = allocate(old.capacity() << 1);
+        for (int i = 0; i < old.capacity(); i++) {
+            long key = old.get(i);
+            if (key != FREE) {
+                insert(table, mix(key), key);
+            }
+        }
+        tables[segment] = table;
+        return table;
+    }
+
+    private LongBuffer allocate(int capacity) {
+        int bytes = capacity * Long.BYTES;
+        ByteBuffer buf = offHeap ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes);
+        return buf.asLongBuffer();
+    }
+
+    // segment from the high bits, slot from the low bits of the hash
+    private static int segment(long hash) {
+        return (int) (hash >>> (Long.SIZE - SEGMENT_BITS));
+    }
+
+    // finalizer of MurmurHash3, spreads sequential IDs over the table
+    static long mix(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
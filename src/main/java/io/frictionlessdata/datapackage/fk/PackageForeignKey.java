@@ -2,7 +2,6 @@ package io.frictionlessdata.datapackage.fk;
 
 import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.resource.Resource;
-import io.frictionlessdata.tableschema.Table;
 import io.frictionlessdata.tableschema.exception.ForeignKeyException;
 import io.frictionlessdata.tableschema.field.Field;
 import io.frictionlessdata.tableschema.fk.ForeignKey;
@@ -41,43 +40,50 @@ public class PackageForeignKey {
      * It does not check the actual data in the tables.
      *
      * Verification of table data against the foreign key constraints is done in
-     * {@link io.frictionlessdata.datapackage.resource.AbstractResource#checkRelations}.
+     * {@link io.frictionlessdata.datapackage.resource.AbstractResource#checkRelations}. This also holds for
+     * self-references: their key index is built in one pass over all tables of the Resource, so a key may
+     * reference a row in a different path of a multi-path Resource.
      *
      * @throws Exception if the foreign key relation is invalid.
      */
     public void validate() throws Exception {
         Reference reference = fk.getReference();
-        // self-reference, this can be validated by the Tableschema {@link io.frictionlessdata.tableschema.fk.ForeignKey} class
-        if (reference.getResource().equals("")) {
-           for (Table table : resource.getTables()) {
-                fk.validate(table);
-            }
-        } else {
-            // validate the foreign key
-            Resource<?> refResource = datapackage.getResource(reference.getResource());
-            if (refResource == null) {
-                throw new ForeignKeyException("Reference resource not found: " + reference.getResource());
-            }
-            List<String> fieldNames = new ArrayList<>();
-            List<String> foreignFieldNames = new ArrayList<>();
-            List<String> lFields = fk.getFieldNames();
-            Schema foreignSchema = refResource.getSchema();
-            if (null == foreignSchema) {
-                foreignSchema = refResource.inferSchema();
-            }
-            for (int i = 0; i < lFields.size(); i++) {
-                fieldNames.add(lFields.get(i));
-                String foreignFieldName = reference.getFieldNames().get(i);
-                foreignFieldNames.add(foreignFieldName);
-                Field<?> foreignField = foreignSchema.getField(foreignFieldName);
-                if (null == foreignField) {
-                    throw new ForeignKeyException("Foreign key ["+fieldNames.get(i)+ "-> "
-                            +reference.getFieldNames().get(i)+"] violation : expected: "
-                            +reference.getFieldNames().get(i) + ", but not found");
-                }
+        Resource<?> refResource = getReferencedResource();
+        if (refResource == null) {
+            throw new ForeignKeyException("Reference resource not found: " + reference.getResource());
+        }
+        List<String> fieldNames = new ArrayList<>();
+        List<String> foreignFieldNames = new ArrayList<>();
+        List<String> lFields = fk.getFieldNames();
+        Schema foreignSchema = refResource.getSchema();
+        if (null == foreignSchema) {
+            foreignSchema = refResource.inferSchema();
+        }
+        for (int i = 0; i < lFields.size(); i++) {
+            fieldNames.add(lFields.get(i));
+            String foreignFieldName = reference.getFieldNames().get(i);
+            foreignFieldNames.add(foreignFieldName);
+            Field<?> foreignField = foreignSchema.getField(foreignFieldName);
+            if (null == foreignField) {
+                throw new ForeignKeyException("Foreign key ["+fieldNames.get(i)+ "-> "
+                        +reference.getFieldNames().get(i)+"] violation : expected: "
+                        +reference.getFieldNames().get(i) + ", but not found");
             }
+        }
+    }
 
+    /**
+     * Returns the Resource the foreign key points to. For self-referencing foreign keys,
+     * this is the Resource holding the foreign key.
+     *
+     * @return the referenced Resource or null if the Package does not contain it
+     */
+    public Resource<?> getReferencedResource() {
+        String refResourceName = fk.getReference().getResource();
+        if ((null == refResourceName) || refResourceName.isEmpty()) {
+            return resource;
         }
+        return datapackage.getResource(refResourceName);
     }
 
     public ForeignKey getForeignKey() {
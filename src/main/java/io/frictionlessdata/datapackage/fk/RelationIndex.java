@@ -0,0 +1,78 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.resource.Resource;
+
+import java.util.*;
+
+/**
+ * Hash index from the values of the referenced fields of a foreign key to the rows of the referenced Resource.
+ * Used to resolve relations while iterating over a Resource: each lookup is a hash probe instead of a
+ * scan over the referenced Resource.
+ *
+ * Indexes are shared between all iterators of a Package through a {@link RelationIndexCache}.
+ */
+public class RelationIndex {
+    // rough per-object overheads for estimating the heap size of an index
+    private static final int ROW_OVERHEAD = 64;
+    private static final int ENTRY_OVERHEAD = 48;
+
+    private final Map<CompositeKey, Map<String, Object>> rows = new HashMap<>();
+    private long estimatedBytes = 0;
+
+    private RelationIndex() {}
+
+    /**
+     * Read `refResource` and index its rows by the values of `refFieldNames`.
+     *
+     * @param refResource the referenced Resource
+     * @param refFieldNames the referenced fields
+     * @return the index
+     * @throws Exception if reading the referenced Resource fails
+     */
+    public static RelationIndex build(Resource<?> refResource, List<String> refFieldNames) throws Exception {
+        RelationIndex index = new RelationIndex();
+        Iterator<Map<String, Object>> iter = refResource.mappingIterator(false);
+        while (iter.hasNext()) {
+            Map<String, Object> refRow = iter.next();
+            List<Object> values = new ArrayList<>(refFieldNames.size());
+            for (String fieldName : refFieldNames) {
+                values.add(refRow.get(fieldName));
+            }
+            CompositeKey key = CompositeKey.tuple(values);
+            // like a lookup in the referenced Resource, the first matching row wins
+            if (null == index.rows.putIfAbsent(key, refRow)) {
+                index.estimatedBytes += ROW_OVERHEAD + key.encoded().length + estimateSize(refRow);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param values the key values, in the order of the referenced fields
+     * @return the referenced row, or null if no row of the referenced Resource holds the key
+     */
+    public Map<String, Object> get(List<?> values) {
+        return rows.get(CompositeKey.tuple(values));
+    }
+
+    /**
+     * @return the estimated heap size of the index in bytes
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private static long estimateSize(Map<String, Object> row) {
+        long retVal = 0;
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            retVal += ENTRY_OVERHEAD;
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                retVal += ((String) value).length();
+            } else if (null != value) {
+                retVal += 24;
+            }
+        }
+        return retVal;
+    }
+}
@@ -0,0 +1,138 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.resource.Resource;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Package-level cache of {@link RelationIndex}es, so each referenced Resource is indexed once and shared by all
+ * iterators and Resources that resolve relations to it. The cache holds indexes up to a budget of their
+ * estimated heap size and evicts the least recently used ones beyond it. Indexes larger than the budget
+ * are not cached, but still returned to the iterator that needs them.
+ *
+ * An index is built by the first thread that asks for it, other threads asking for the same index wait for it
+ * to complete, like in a {@link ForeignKeyIndexCache}. The indexes of a Resource are dropped when the Resource
+ * releases its tables, so they are rebuilt from the current data.
+ */
+public class RelationIndexCache {
+    private final long maxBytes;
+    // keyed by referenced Resource (by identity) and referenced field names, in access order
+    private final LinkedHashMap<List<Object>, Entry> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+
+    /**
+     * @param maxBytes memory budget for cached indexes in bytes
+     */
+    public RelationIndexCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Return the index over `refFieldNames` of `refResource`, building it if it is not cached.
+     *
+     * @param refResource the referenced Resource
+     * @param refFieldNames the referenced fields
+     * @return the index
+     * @throws Exception if reading the referenced Resource fails
+     */
+    public RelationIndex get(Resource<?> refResource, List<String> refFieldNames) throws Exception {
+        List<Object> key = Arrays.asList(refResource, new ArrayList<>(refFieldNames));
+        Entry entry = new Entry(new FutureTask<>(() -> RelationIndex.build(refResource, refFieldNames)));
+        Entry existing;
+        synchronized (this) {
+            existing = indexes.putIfAbsent(key, entry);
+        }
+        if (null != existing)
+            return await(existing.task);
+
+        entry.task.run();
+        RelationIndex index;
+        try {
+            index = await(entry.task);
+        } catch (Exception ex) {
+            synchronized (this) {
+                // let the next thread asking for the index try again
+                indexes.remove(key, entry);
+            }
+            throw ex;
+        }
+        admit(key, entry, index.getEstimatedBytes());
+        return index;
+    }
+
+    // account for a built index, unless it was dropped while it was built
+    private synchronized void admit(List<Object> key, Entry entry, long estimatedBytes) {
+        if (indexes.get(key) != entry)
+            return;
+        if (estimatedBytes > maxBytes) {
+            indexes.remove(key);
+            return;
+        }
+        entry.bytes = estimatedBytes;
+        bytes += estimatedBytes;
+        Iterator<Entry> iter = indexes.values().iterator();
+        while ((bytes > maxBytes) && iter.hasNext()) {
+            Entry evicted = iter.next();
+            // indexes still being built are not accounted for yet
+            if ((evicted != entry) && (evicted.bytes >= 0)) {
+                bytes -= evicted.bytes;
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the estimated heap size of all cached indexes in bytes
+     */
+    public synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    /**
+     * Drop the cached indexes of a Resource, eg. because it released its tables or its data changed. Indexes of
+     * the Resource that are being built are not dropped.
+     *
+     * @param refResource the referenced Resource
+     */
+    public synchronized void invalidate(Resource<?> refResource) {
+        Iterator<Map.Entry<List<Object>, Entry>> iter = indexes.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<List<Object>, Entry> e = iter.next();
+            if ((e.getKey().get(0) == refResource) && (e.getValue().bytes >= 0)) {
+                bytes -= e.getValue().bytes;
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Drop all cached indexes, eg. because Resources of the Package changed.
+     */
+    public synchronized void clear() {
+        indexes.clear();
+        bytes = 0;
+    }
+
+    private static RelationIndex await(FutureTask<RelationIndex> task) throws Exception {
+        try {
+            return task.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw ex;
+        }
+    }
+
+    private static final class Entry {
+        private final FutureTask<RelationIndex> task;
+        // estimated heap size of the index, -1 while it is built
+        private long bytes = -1;
+
+        private Entry(FutureTask<RelationIndex> task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package io.frictionlessdata.datapackage.fk;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * {@link KeySet} for referenced Resources whose keys do not fit into memory. Keys are collected
+ * in an in-memory {@link BytesKeySet} until it holds `maxKeysInMemory` keys; then the keys are sorted
+ * by hash and written to a run file on disk, and collection starts over. If the keys never exceed the limit,
+ * nothing is written to disk and lookups go to the in-memory set.
+ *
+ * On {@link #seal()}, the runs are merged into a single file of distinct keys, ordered by hash. The file is
+ * split into blocks of {@value #BLOCK_KEYS} keys, and only the first hash and the file offset of each block
+ * is kept in memory, so the hash range of each block forms a partition of the key space. A lookup
+ * first asks a {@link BloomFilter}, and only if the key might be present reads the one block its hash
+ * falls into. {@link #containsAll(List)} sorts probes by hash, so a batch reads each block at most once,
+ * in file order.
+ *
+ * Keys are stored in their {@link KeyCodec} encoding, so they match like in {@link TypedKeySet}. Once sealed,
+ * the set can be probed from several threads.
+ *
+ * A sealed set can be kept on disk with {@link #sealTo(Path)} and {@link #writeMeta(DataOutputStream)} and
+ * later be reopened with {@link #open(Path, DataInputStream, boolean)}. Reopened sets read their key file through
+ * memory mappings.
+ */
+final class SpillingKeySet implements KeySet {
+    static final int BLOCK_KEYS = 256;
+    // key files are mapped in chunks of whole blocks of at most this size
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    private final Path directory;
+    private final long maxKeysInMemory;
+    private final boolean offHeap;
+
+    private BytesKeySet buffer;
+    private final List<Path> runs = new ArrayList<>();
+    private long spilledKeys;
+    private boolean containsNull;
+
+    // sealed state, only set if keys were spilled
+    private Path keyFile;
+    private FileChannel channel;
+    private BloomFilter bloom;
+    private int[] blockHashes;
+    private long[] blockOffsets;
+    private int numBlocks;
+    private long size;
+    // set if the key file is kept after close()
+    private boolean persistent;
+    // memory mappings of a persistent key file, and the first block of each
+    private ByteBuffer[] chunks;
+    private int[] chunkFirstBlocks;
+
+    /**
+     * @param directory the directory to create temporary files in, null for the default temp directory
+     * @param maxKeysInMemory number of keys to collect in memory before spilling them to disk
+     * @param offHeap whether to allocate buffers off-heap
+     */
+    SpillingKeySet(Path directory, long maxKeysInMemory, boolean offHeap) {
+        this.directory = directory;
+        this.maxKeysInMemory = maxKeysInMemory;
+        this.offHeap = offHeap;
+        this.buffer = new BytesKeySet(offHeap);
+    }
+
+    // a sealed set read from disk
+    private SpillingKeySet(boolean offHeap) {
+        this.directory = null;
+        this.maxKeysInMemory = 0;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Open a set that was written with {@link #sealTo(Path)} and {@link #writeMeta(DataOutputStream)}.
+     *
+     * @param keyFile the key file
+     * @param meta stream positioned at the metadata of the set
+     * @param offHeap whether to allocate the Bloom filter off-heap
+     * @return the sealed set
+     * @throws IOException if reading the metadata or mapping the key file fails
+     */
+    static SpillingKeySet open(Path keyFile, DataInputStream meta, boolean offHeap) throws IOException {
+        SpillingKeySet retVal = new SpillingKeySet(offHeap);
+        retVal.size = meta.readLong();
+        retVal.containsNull = meta.readBoolean();
+        retVal.numBlocks = meta.readInt();
+        retVal.blockHashes = new int[Math.max(retVal.numBlocks, 1)];
+        retVal.blockOffsets = new long[retVal.numBlocks + 1];
+        for (int i = 0; i < retVal.numBlocks; i++) {
+            retVal.blockHashes[i] = meta.readInt();
+            retVal.blockOffsets[i] = meta.readLong();
+        }
+        retVal.blockOffsets[retVal.numBlocks] = meta.readLong();
+        retVal.bloom = BloomFilter.read(meta, offHeap);
+        retVal.keyFile = keyFile;
+        retVal.persistent = true;
+        if (Files.size(keyFile) != retVal.blockOffsets[retVal.numBlocks])
+            throw new IOException("Foreign key index file does not match its metadata: " + keyFile);
+        retVal.channel = FileChannel.open(keyFile, StandardOpenOption.READ);
+        retVal.map();
+        return retVal;
+    }
+
+    @Override
+    public boolean add(Object key) {
+        if (null == key) {
+            boolean added = !containsNull;
+            containsNull = true;
+            return added;
+        }
+        boolean added = buffer.add(KeyCodec.encode(key));
+        if (buffer.size() >= maxKeysInMemory) {
+            try {
+                spill();
+            } catch (IOException ex) {
+                throw new DataPackageException("Writing foreign key index to disk failed", ex);
+            }
+        }
+        return added;
+    }
+
+    @Override
+    public void seal() throws IOException {
+        if (runs.isEmpty())
+            return;
+        if (buffer.size() > 0)
+            spill();
+        buffer = null;
+        merge(createTempFile("keys"));
+    }
+
+    /**
+     * Seal the set and write all keys to `target`, even if they would fit into memory. The file is not
+     * deleted on {@link #close()}.
+     *
+     * @param target the key file to write
+     * @throws IOException if writing the key file fails
+     */
+    void sealTo(Path target) throws IOException {
+        if (buffer.size() > 0)
+            spill();
+        buffer = null;
+        persistent = true;
+        merge(target);
+        map();
+    }
+
+    /**
+     * Write what is needed to reopen a set sealed with {@link #sealTo(Path)}: counts, block index and Bloom filter.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    void writeMeta(DataOutputStream out) throws IOException {
+        out.writeLong(size);
+        out.writeBoolean(containsNull);
+        out.writeInt(numBlocks);
+        for (int i = 0; i < numBlocks; i++) {
+            out.writeInt(blockHashes[i]);
+            out.writeLong(blockOffsets[i]);
+        }
+        out.writeLong(blockOffsets[numBlocks]);
+        bloom.write(out);
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        if (null == key)
+            return containsNull;
+        byte[] bytes = KeyCodec.encode(key);
+        if (null != buffer)
+            return buffer.contains(bytes);
+        try {
+            return containsSpilled(bytes, BytesKeySet.hash(bytes), new BlockReader());
+        } catch (IOException ex) {
+            throw new DataPackageException("Reading foreign key index from disk failed", ex);
+        }
+    }
+
+    @Override
+    public boolean[] containsAll(List<?> keys) {
+        if (null != buffer)
+            return KeySet.super.containsAll(keys);
+        boolean[] retVal = new boolean[keys.size()];
+        List<Probe> probes = new ArrayList<>(keys.size());
+        for (int i = 0; i < retVal.length; i++) {
+            Object key = keys.get(i);
+            if (null == key) {
+                retVal[i] = containsNull;
+            } else {
+                byte[] bytes = KeyCodec.encode(key);
+                probes.add(new Probe(BytesKeySet.hash(bytes), bytes, i));
+            }
+        }
+        probes.sort(Comparator.comparingInt(p -> p.hash));
+        try {
+            BlockReader reader = new BlockReader();
+            for (Probe probe : probes) {
+                retVal[probe.position] = containsSpilled(probe.key, probe.hash, reader);
+            }
+        } catch (IOException ex) {
+            throw new DataPackageException("Reading foreign key index from disk failed", ex);
+        }
+        return retVal;
+    }
+
+    @Override
+    public long size() {
+        long retVal = (null != buffer) ? buffer.size() : size;
+        return containsNull ? retVal + 1 : retVal;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        bloom = null;
+        chunks = null;
+        if (null != channel) {
+            channel.close();
+            channel = null;
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        if ((null != keyFile) && !persistent) {
+            Files.deleteIfExists(keyFile);
+        }
+        keyFile = null;
+    }
+
+    private void spill() throws IOException {
+        HashedKey[] keys = new HashedKey[(int) buffer.size()];
+        int[] count = new int[1];
+        buffer.forEach(k -> keys[count[0]++] = new HashedKey(BytesKeySet.hash(k), k));
+        buffer = new BytesKeySet(offHeap);
+        Arrays.sort(keys);
+
+        Path run = createTempFile("run");
+        runs.add(run);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            for (HashedKey key : keys) {
+                writeKey(out, key);
+            }
+        }
+        spilledKeys += keys.length;
+    }
+
+    // k-way merge of the sorted runs into the key file, dropping duplicates and recording block boundaries
+    private void merge(Path target) throws IOException {
+        bloom = BloomFilter.create(spilledKeys, offHeap);
+        blockHashes = new int[16];
+        blockOffsets = new long[17];
+        keyFile = target;
+
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(Comparator.comparing(r -> r.current));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(keyFile)))) {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.next())
+                    queue.add(reader);
+                else
+                    reader.close();
+            }
+            HashedKey last = null;
+            long offset = 0;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                HashedKey key = reader.current;
+                if ((null == last) || last.compareTo(key) != 0) {
+                    if (size % BLOCK_KEYS == 0) {
+                        addBlock(key.hash, offset);
+                    }
+                    writeKey(out, key);
+                    offset += 2 * Integer.BYTES + key.bytes.length;
+                    bloom.add(key.hash, key.bytes.length);
+                    size++;
+                    last = key;
+                }
+                if (reader.next())
+                    queue.add(reader);
+                else
+                    reader.close();
+            }
+            blockOffsets[numBlocks] = offset;
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        channel = FileChannel.open(keyFile, StandardOpenOption.READ);
+    }
+
+    // map the key file in chunks of whole blocks, so a block never straddles two mappings
+    private void map() throws IOException {
+        List<ByteBuffer> mapped = new ArrayList<>();
+        List<Integer> firstBlocks = new ArrayList<>();
+        int first = 0;
+        while (first < numBlocks) {
+            int last = first + 1;
+            while ((last < numBlocks) && (blockOffsets[last + 1] - blockOffsets[first] <= MAX_CHUNK_SIZE)) {
+                last++;
+            }
+            long start = blockOffsets[first];
+            long length = blockOffsets[last] - start;
+            if (length > Integer.MAX_VALUE)
+                throw new IOException("Foreign key index block too large: " + keyFile);
+            mapped.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+            firstBlocks.add(first);
+            first = last;
+        }
+        chunks = mapped.toArray(new ByteBuffer[0]);
+        chunkFirstBlocks = firstBlocks.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void addBlock(int hash, long offset) {
+        if (numBlocks == blockHashes.length) {
+            blockHashes = Arrays.copyOf(blockHashes, numBlocks * 2);
+            blockOffsets = Arrays.copyOf(blockOffsets, numBlocks * 2 + 1);
+        }
+        blockHashes[numBlocks] = hash;
+        blockOffsets[numBlocks] = offset;
+        numBlocks++;
+    }
+
+    private boolean containsSpilled(byte[] key, int hash, BlockReader reader) throws IOException {
+        if (!bloom.mightContain(hash, key.length))
+            return false;
+        // keys with the same hash may straddle a block boundary, so start in the block before
+        // the first block starting with `hash`
+        int block = lowerBound(hash);
+        if (block > 0)
+            block--;
+        for (; block < numBlocks; block++) {
+            if (block > 0 && blockHashes[block] > hash)
+                return false;
+            ByteBuffer buf = reader.read(block);
+            while (buf.hasRemaining()) {
+                int keyHash = buf.getInt();
+                int len = buf.getInt();
+                if (keyHash > hash)
+                    return false;
+                if ((keyHash == hash) && (len == key.length) && equalsAt(buf, key))
+                    return true;
+                buf.position(buf.position() + len);
+            }
+        }
+        return false;
+    }
+
+    private int lowerBound(int hash) {
+        int lo = 0;
+        int hi = numBlocks;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockHashes[mid] < hash)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+
+    private static boolean equalsAt(ByteBuffer buf, byte[] key) {
+        int offset = buf.position();
+        for (int i = 0; i < key.length; i++) {
+            if (buf.get(offset + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    private Path createTempFile(String kind) throws IOException {
+        return (null == directory)
+                ? Files.createTempFile("fk-index-", "." + kind)
+                : Files.createTempFile(directory, "fk-index-", "." + kind);
+    }
+
+    private static void writeKey(DataOutputStream out, HashedKey key) throws IOException {
+        out.writeInt(key.hash);
+        out.writeInt(key.bytes.length);
+        out.write(key.bytes);
+    }
+
+    // orders keys by hash first, so that runs and the key file are partitioned by hash range
+    private static final class HashedKey implements Comparable<HashedKey> {
+        private final int hash;
+        private final byte[] bytes;
+
+        private HashedKey(int hash, byte[] bytes) {
+            this.hash = hash;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int compareTo(HashedKey other) {
+            int retVal = Integer.compare(hash, other.hash);
+            return (retVal != 0) ? retVal : Arrays.compare(bytes, other.bytes);
+        }
+    }
+
+    // reads blocks of the key file, keeping the most recently read one. Lookups each use their own reader,
+    // so a sealed set can be probed from several threads
+    private final class BlockReader {
+        private int cachedBlock = -1;
+        private ByteBuffer buffer;
+
+        private ByteBuffer read(int block) throws IOException {
+            int len = (int) (blockOffsets[block + 1] - blockOffsets[block]);
+            if (null != chunks) {
+                int chunk = Arrays.binarySearch(chunkFirstBlocks, block);
+                if (chunk < 0)
+                    chunk = -chunk - 2;
+                int offset = (int) (blockOffsets[block] - blockOffsets[chunkFirstBlocks[chunk]]);
+                return chunks[chunk].slice(offset, len);
+            }
+            if (block != cachedBlock) {
+                if ((null == buffer) || buffer.capacity() < len) {
+                    buffer = ByteBuffer.allocate(Math.max(len, 4096));
+                }
+                buffer.clear().limit(len);
+                long pos = blockOffsets[block];
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, pos + buffer.position()) < 0)
+                        throw new EOFException("Foreign key index file truncated: " + keyFile);
+                }
+                cachedBlock = block;
+            }
+            buffer.position(0).limit(len);
+            return buffer;
+        }
+    }
+
+    private static final class Probe {
+        private final int hash;
+        private final byte[] key;
+        private final int position;
+
+        private Probe(int hash, byte[] key, int position) {
+            this.hash = hash;
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    private static final class RunReader implements Closeable {
+        private final DataInputStream in;
+        private HashedKey current;
+
+        private RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+        }
+
+        private boolean next() throws IOException {
+            int hash;
+            try {
+                hash = in.readInt();
+            } catch (EOFException ex) {
+                current = null;
+                return false;
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            current = new HashedKey(hash, bytes);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
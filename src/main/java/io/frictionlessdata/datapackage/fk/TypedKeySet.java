@@ -0,0 +1,73 @@
+package io.frictionlessdata.datapackage.fk;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link KeySet} that routes each key to a store specialized for its type: integral numbers that fit
+ * into a `long` go to a {@link LongKeySet}, Strings are stored as UTF-8 in a {@link BytesKeySet}, and
+ * all other values are stored in their {@link KeyCodec} encoding.
+ *
+ * Integral values are compared by numeric value, so a `BigInteger` key matches a `Long` or `Integer`
+ * of the same value. Values of different types otherwise never match.
+ */
+final class TypedKeySet implements KeySet {
+    private final boolean offHeap;
+    private LongKeySet longs;
+    private BytesKeySet strings;
+    private BytesKeySet others;
+    private boolean containsNull;
+    private long size;
+
+    TypedKeySet(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public boolean add(Object key) {
+        boolean added;
+        if (null == key) {
+            added = !containsNull;
+            containsNull = true;
+        } else if (fitsLong(key)) {
+            if (null == longs)
+                longs = new LongKeySet(offHeap);
+            added = longs.add(((Number) key).longValue());
+        } else if (key instanceof String) {
+            if (null == strings)
+                strings = new BytesKeySet(offHeap);
+            added = strings.add(((String) key).getBytes(StandardCharsets.UTF_8));
+        } else {
+            if (null == others)
+                others = new BytesKeySet(offHeap);
+            added = others.add(KeyCodec.encode(key));
+        }
+        if (added)
+            size++;
+        return added;
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        if (null == key) {
+            return containsNull;
+        } else if (fitsLong(key)) {
+            return (null != longs) && longs.contains(((Number) key).longValue());
+        } else if (key instanceof String) {
+            return (null != strings) && strings.contains(((String) key).getBytes(StandardCharsets.UTF_8));
+        }
+        return (null != others) && others.contains(KeyCodec.encode(key));
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private static boolean fitsLong(Object key) {
+        if (key instanceof BigInteger) {
+            return ((BigInteger) key).bitLength() < Long.SIZE;
+        }
+        return KeyCodec.isIntegral(key);
+    }
+}
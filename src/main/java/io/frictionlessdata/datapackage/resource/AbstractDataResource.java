@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndexCache;
 import io.frictionlessdata.tableschema.Table;
 
 import java.io.IOException;
@@ -66,6 +67,12 @@ public abstract class AbstractDataResource<T> extends AbstractResource<T> {
         return tables;
     }
 
+    @Override
+    long estimateDataBytes() {
+        // the tables hold the data as text
+        return (data instanceof CharSequence) ? ((CharSequence) data).length() : 0;
+    }
+
     @Override
     @JsonIgnore
     public Set<String> getDatafileNamesForWriting() {
@@ -78,8 +85,8 @@ public abstract class AbstractDataResource<T> extends AbstractResource<T> {
     }
 
     @Override
-    public void validate(Package pkg) throws DataPackageValidationException {
-        super.validate(pkg);
+    public void validate(Package pkg, ForeignKeyIndexCache cache) throws DataPackageValidationException {
+        super.validate(pkg, cache);
         try {
             if (getRawData() == null) {
                 throw new DataPackageValidationException("Data resource must have data");
@@ -7,6 +7,7 @@ import tools.jackson.databind.JsonNode;
 import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndexCache;
 import io.frictionlessdata.tableschema.Table;
 import io.frictionlessdata.tableschema.tabledatasource.TableDataSource;
 import io.frictionlessdata.tableschema.util.JsonUtil;
@@ -17,12 +18,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @JsonInclude(value= JsonInclude.Include. NON_EMPTY, content= JsonInclude.Include. NON_NULL)
 public abstract class AbstractReferencebasedResource<T> extends AbstractResource<T> {
     Collection<T> paths;
 
+    @JsonIgnore
+    private ExecutorService loadExecutor = null;
+
     AbstractReferencebasedResource(String name, Collection<T> paths) {
         super(name);
         this.paths = paths;
@@ -77,6 +84,28 @@ public abstract class AbstractReferencebasedResource<T> extends AbstractResource
         return paths;
     }
 
+    /**
+     * @return the executor the tables of this Resource are loaded on, null if they are loaded sequentially
+     */
+    @JsonIgnore
+    public ExecutorService getLoadExecutor() {
+        return loadExecutor;
+    }
+
+    /**
+     * Load the tables of a Resource with several paths in parallel on `executor`. Each path is opened and its
+     * headers are read concurrently, so loading many partition files is bound by I/O bandwidth rather than by
+     * the latency of each file. Iterators still return the rows in the order of the paths.
+     *
+     * The executor is not shut down by the Resource.
+     *
+     * @param executor the executor to load tables on, or null to load them sequentially
+     */
+    @JsonIgnore
+    public void setLoadExecutor(ExecutorService executor) {
+        this.loadExecutor = executor;
+    }
+
     @Override
     @JsonIgnore
     public Set<String> getDatafileNamesForWriting() {
@@ -96,8 +125,8 @@ public abstract class AbstractReferencebasedResource<T> extends AbstractResource
     }
 
     @Override
-    public void validate(Package pkg) throws DataPackageValidationException {
-        super.validate(pkg);
+    public void validate(Package pkg, ForeignKeyIndexCache cache) throws DataPackageValidationException {
+        super.validate(pkg, cache);
         List<T> paths = new ArrayList<>(getPaths());
         try {
             if (paths.isEmpty()) {
@@ -159,6 +188,52 @@ public abstract class AbstractReferencebasedResource<T> extends AbstractResource
 
     abstract Table createTable(T reference) throws Exception;
 
+    /**
+     * Load one table per path, on the load executor if one is set.
+     *
+     * @param references the paths to load
+     * @param loader creates the table for a path
+     * @return the tables, in the order of `references`
+     * @throws Exception if loading a table fails. If several fail, the failure of the first path is thrown
+     */
+    <P, R> List<R> loadTables(Collection<P> references, TableLoader<P, R> loader) throws Exception {
+        List<R> tables = new ArrayList<>();
+        if ((null == loadExecutor) || (references.size() < 2)) {
+            for (P reference : references) {
+                tables.add(loader.load(reference));
+            }
+            return tables;
+        }
+        List<Future<R>> futures = new ArrayList<>();
+        for (P reference : references) {
+            futures.add(loadExecutor.submit(() -> {
+                R table = loader.load(reference);
+                if (table instanceof Table) {
+                    // read the headers now, so the file is opened and checked on the executor
+                    ((Table) table).getHeaders();
+                }
+                return table;
+            }));
+        }
+        try {
+            for (Future<R> future : futures) {
+                tables.add(future.get());
+            }
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception)
+                throw (Exception) cause;
+            throw ex;
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+        return tables;
+    }
+
+    interface TableLoader<P, R> {
+        R load(P reference) throws Exception;
+    }
+
     abstract String getStringRepresentation(T reference);
 
     abstract byte[] getRawData(T input) throws IOException;
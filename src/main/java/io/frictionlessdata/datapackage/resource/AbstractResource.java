@@ -12,6 +12,10 @@ import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.Profile;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndex;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndexCache;
+import io.frictionlessdata.datapackage.fk.ForeignKeyViolation;
+import io.frictionlessdata.datapackage.fk.ForeignKeyViolationSink;
 import io.frictionlessdata.datapackage.fk.PackageForeignKey;
 import io.frictionlessdata.tableschema.Table;
 import io.frictionlessdata.tableschema.exception.ForeignKeyException;
@@ -28,6 +32,7 @@ import io.frictionlessdata.tableschema.schema.Schema;
 import io.frictionlessdata.tableschema.tabledatasource.TableDataSource;
 import io.frictionlessdata.tableschema.util.JsonUtil;
 import io.frictionlessdata.tableschema.util.TableSchemaUtil;
+import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.collections4.iterators.IteratorChain;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
@@ -40,6 +45,14 @@ import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Abstract base implementation of a Resource.
@@ -48,10 +61,20 @@ import java.util.*;
 @JsonInclude(value = Include.NON_EMPTY, content = Include.NON_EMPTY )
 public abstract class AbstractResource<T> extends JSONBase implements Resource<T> {
 
+    // number of rows whose foreign key values are looked up together
+    private static final int FK_PROBE_BATCH_SIZE = 4096;
+
     // Data properties.
     @JsonIgnore
     protected List<Table> tables;
 
+    // the number of rows of each of the tables in `countedTables`, -1 until a table was read to the end
+    @JsonIgnore
+    private List<Table> countedTables;
+
+    @JsonIgnore
+    private AtomicLongArray rowCounts;
+
     @JsonProperty("format")
     String format = null;
 
@@ -70,6 +93,10 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
     @JsonIgnore
     final List<DataPackageValidationException> errors = new ArrayList<>();
 
+    // the Package this Resource was added to, its relation cache resolves foreign keys while iterating
+    @JsonIgnore
+    private Package datapackage = null;
+
     AbstractResource(String name){
         this.name = name;
         if (null == name)
@@ -104,9 +131,28 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
         return this.objectArrayIterator(false, false);
     }
 
+    /**
+     * Set the Package this Resource belongs to. Iterators with relations then resolve foreign keys through the
+     * relation cache of the Package instead of per row. Called by the Package when the Resource is added.
+     *
+     * @param datapackage the Package, or null if the Resource was removed from it
+     */
+    @JsonIgnore
+    public void setDatapackage(Package datapackage) {
+        if (null != this.datapackage) {
+            if (null != this.datapackage.getTableCache())
+                this.datapackage.getTableCache().remove(this);
+            this.datapackage.getRelationIndexCache().invalidate(this);
+        }
+        this.datapackage = datapackage;
+    }
+
     @Override
     public Iterator<Object[]> objectArrayIterator(boolean extended, boolean relations) throws Exception{
-        ensureDataLoaded();
+        RelationResolver resolver = relations ? RelationResolver.of(this, datapackage) : null;
+        if (null != resolver)
+            return resolver.resolveArrays(objectArrayIterator(extended, false), extended);
+        List<Table> tables = ensureDataLoaded();
         Iterator<Object[]>[] tableIteratorArray = new TableIterator[tables.size()];
         int cnt = 0;
         for (Table table : tables) {
@@ -116,7 +162,10 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
     }
 
     public Iterator<String[]> stringArrayIterator(boolean relations) throws Exception{
-        ensureDataLoaded();
+        RelationResolver resolver = relations ? RelationResolver.of(this, datapackage) : null;
+        if (null != resolver)
+            return resolver.verifyStrings(stringArrayIterator(false));
+        List<Table> tables = ensureDataLoaded();
         Iterator[] tableIteratorArray = new TableIterator[tables.size()];
         int cnt = 0;
         for (Table table : tables) {
@@ -127,7 +176,7 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
 
     @Override
     public Iterator<String[]> stringArrayIterator() throws Exception{
-        ensureDataLoaded();
+        List<Table> tables = ensureDataLoaded();
         Iterator<String[]>[] tableIteratorArray = new TableIterator[tables.size()];
         int cnt = 0;
         for (Table table : tables) {
@@ -138,7 +187,10 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
 
     @Override
     public Iterator<Map<String, Object>> mappingIterator(boolean relations) throws Exception{
-        ensureDataLoaded();
+        RelationResolver resolver = relations ? RelationResolver.of(this, datapackage) : null;
+        if (null != resolver)
+            return resolver.resolveMaps(mappingIterator(false));
+        List<Table> tables = ensureDataLoaded();
         Iterator<Map<String, Object>>[] tableIteratorArray = new TableIterator[tables.size()];
         int cnt = 0;
         for (Table table : tables) {
@@ -149,7 +201,7 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
 
     @Override
     public <C> Iterator<C> beanIterator(Class<C> beanType, boolean relations) throws Exception {
-        ensureDataLoaded();
+        List<Table> tables = ensureDataLoaded();
         IteratorChain<C> ic = new IteratorChain<>();
         for (Table table : tables) {
             ic.addIterator ((Iterator<? extends C>) table.iterator(beanType, false));
@@ -157,6 +209,150 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
         return ic;
     }
 
+    @Override
+    public Iterator<Object[]> objectArrayIterator(String... fields) throws Exception {
+        return projectedIterator(fields, null, Projection::cast);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> mappingIterator(Set<String> fields) throws Exception {
+        return projectedIterator(Projection.toArray(fields), null, (p, row) -> p.toMap(p.cast(row)));
+    }
+
+    @Override
+    public <C> Iterator<C> beanIterator(Class<C> beanType, Set<String> fields) throws Exception {
+        ObjectMapper mapper = JsonUtil.getInstance().getMapper();
+        return projectedIterator(Projection.toArray(fields), null,
+                (p, row) -> mapper.convertValue(p.toMap(p.cast(row)), beanType));
+    }
+
+    @Override
+    public Iterator<Object[]> objectArrayIterator(RowFilter filter) throws Exception {
+        return projectedIterator(null, filter, Projection::cast);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> mappingIterator(RowFilter filter) throws Exception {
+        return projectedIterator(null, filter, (p, row) -> p.toMap(p.cast(row)));
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> mappingIterator(RowFilter filter, Set<String> fields) throws Exception {
+        return projectedIterator(Projection.toArray(fields), filter, (p, row) -> p.toMap(p.cast(row)));
+    }
+
+    @Override
+    public List<Map<String, Object>> slice(long offset, int limit) throws Exception {
+        return RowSampling.slice(lazyRowIterator(), offset, limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> sample(int count, long seed) throws Exception {
+        return RowSampling.sample(lazyRowIterator(), count, seed);
+    }
+
+    @Override
+    public List<Map<String, Object>> sample(double fraction, long seed) throws Exception {
+        return RowSampling.sample(lazyRowIterator(), fraction, seed);
+    }
+
+    @Override
+    public Iterator<RowBatch> batchIterator(int batchSize) throws Exception {
+        String[] names = (null != schema) ? schema.getHeaders() : getHeaders();
+        Iterator<Consumer<Object[]>> rows = projectedIterator(names, null, (p, row) -> target -> p.cast(row, target));
+        return new RowBatchIterator(rows, names, batchSize);
+    }
+
+    @Override
+    public ResourceCursor cursor() throws Exception {
+        String[] names = (null != schema) ? schema.getHeaders() : getHeaders();
+        Iterator<Object[]> rows = projectedIterator(names, null, Projection::project);
+        return new IteratorCursor(rows, names, dialect);
+    }
+
+    /**
+     * @return Iterator over the rows of all tables, each one cast to a Map only when its supplier is called
+     */
+    Iterator<Supplier<Map<String, Object>>> lazyRowIterator() throws Exception {
+        return projectedIterator(null, null, (p, row) -> () -> p.toMap(p.cast(row)));
+    }
+
+    /**
+     * Iterate the rows of all tables that match `filter`, projected to `fields`. Values are picked from the
+     * String rows of the tables, so only the columns referenced by the filter are cast for every row, and only
+     * the projected columns of matching rows.
+     *
+     * @param fields the names of the fields to pick, or null for all fields
+     * @param filter the filter rows have to match, or null to return all rows
+     * @param converter converts a String row to the returned row through the projection of its table
+     * @return Iterator over the converted rows
+     * @throws Exception if reading the data fails or a field is not found
+     */
+    <E> Iterator<E> projectedIterator(String[] fields, RowFilter filter,
+                                      BiFunction<Projection, String[], E> converter) throws Exception {
+        List<Table> tables = ensureDataLoaded();
+        boolean caseSensitive = (null != dialect) && dialect.isCaseSensitiveHeader();
+        IteratorChain<E> ic = new IteratorChain<>();
+        for (Table table : tables) {
+            Schema tableSchema = (null != schema) ? schema : table.getSchema();
+            String[] headers = table.getHeaders();
+            String[] names = (null != fields) ? fields
+                    : ((null != tableSchema) ? tableSchema.getHeaders() : headers);
+            Projection projection = Projection.of(names, headers, tableSchema, caseSensitive);
+            Iterator<String[]> rows = table.stringArrayIterator();
+            if (null != filter) {
+                Predicate<String[]> predicate = filter.bind(
+                        Projection.of(filter.getFieldNames(), headers, tableSchema, caseSensitive));
+                rows = IteratorUtils.filteredIterator(rows, predicate::test);
+            }
+            ic.addIterator(IteratorUtils.transformedIterator(rows, row -> converter.apply(projection, row)));
+        }
+        return ic;
+    }
+
+    @Override
+    public Stream<Object[]> objectArrayStream(boolean relations) throws Exception {
+        if (relations && (null != RelationResolver.of(this, datapackage)))
+            return Resource.super.objectArrayStream(true);
+        List<Table> tables = ensureDataLoaded();
+        return tableStream(new TableSpliterator<>(tables, t -> (Iterator) t.iterator(false, false, true, relations),
+                rowCounts(tables)));
+    }
+
+    @Override
+    public Stream<Map<String, Object>> mappingStream(boolean relations) throws Exception {
+        if (relations && (null != RelationResolver.of(this, datapackage)))
+            return Resource.super.mappingStream(true);
+        List<Table> tables = ensureDataLoaded();
+        return tableStream(new TableSpliterator<>(tables, t -> t.mappingIterator(false, true, relations),
+                rowCounts(tables)));
+    }
+
+    @Override
+    public <C> Stream<C> beanStream(Class<C> beanType, boolean relations) throws Exception {
+        List<Table> tables = ensureDataLoaded();
+        return tableStream(new TableSpliterator<>(tables, t -> t.iterator(beanType, false), rowCounts(tables)));
+    }
+
+    /**
+     * @param tables the loaded tables
+     * @return the number of rows of each of `tables` that was read to the end, -1 for the others
+     */
+    synchronized AtomicLongArray rowCounts(List<Table> tables) {
+        if (countedTables != tables) {
+            countedTables = tables;
+            rowCounts = new AtomicLongArray(tables.size());
+            for (int i = 0; i < tables.size(); i++) {
+                rowCounts.set(i, -1);
+            }
+        }
+        return rowCounts;
+    }
+
+    private static <E> Stream<E> tableStream(TableSpliterator<E> spliterator) {
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
     /**
      * Read all data from a Resource, each row as String arrays. This can be used for smaller datapackages,
      * but for huge or unknown sizes, reading via iterator  is preferred, as this method loads all data into RAM.
@@ -173,6 +369,9 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
      */
     @JsonIgnore
     public List<String[]> getData(boolean relations) throws Exception{
+        if (!relations && (dataSpillThreshold() > 0))
+            return SpillingList.collect(stringArrayIterator(false), page -> page,
+                    dataSpillThreshold(), datapackage.getDataSpillDirectory());
         List<String[]> retVal = new ArrayList<>();
         ensureDataLoaded();
         Iterator<String[]> iter = stringArrayIterator(relations);
@@ -199,16 +398,28 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
      */
     @Override
     public List<Map<String, Object>> getMappedData(boolean relations) throws Exception {
-        List<Map<String, Object>> retVal = new ArrayList<>();
-        ensureDataLoaded();
-        Iterator[] tableIteratorArray = new TableIterator[tables.size()];
-        int cnt = 0;
-        for (Table table : tables) {
-            tableIteratorArray[cnt++] = table.iterator(true, false, true, relations);
+        if (!relations && (dataSpillThreshold() > 0))
+            return spillData(t -> t.iterator(true, false, true, false));
+        RelationResolver resolver = relations ? RelationResolver.of(this, datapackage) : null;
+        if (null != resolver) {
+            List<Map<String, Object>> retVal = new ArrayList<>();
+            resolver.resolveMaps(getMappedData(false).iterator()).forEachRemaining(retVal::add);
+            return retVal;
         }
-        Iterator iter = new IteratorChain<>(tableIteratorArray);
-        while (iter.hasNext()) {
-            retVal.add((Map)iter.next());
+        return readMappedData();
+    }
+
+    private List<Map<String, Object>> readMappedData() throws Exception {
+        List<Map<String, Object>> retVal = new ArrayList<>();
+        List<Table> tables = ensureDataLoaded();
+        AtomicLongArray counts = rowCounts(tables);
+        for (int i = 0; i < tables.size(); i++) {
+            int before = retVal.size();
+            Iterator iter = tables.get(i).iterator(true, false, true, false);
+            while (iter.hasNext()) {
+                retVal.add((Map)iter.next());
+            }
+            counts.set(i, retVal.size() - before);
         }
         return retVal;
     }
@@ -239,6 +450,14 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
      * @throws Exception if reading data fails
      */
     public List<Object> getData(boolean keyed, boolean extended, boolean cast, boolean relations) throws Exception{
+        if (!extended && !relations && (dataSpillThreshold() > 0)) {
+            if (keyed)
+                return spillData(t -> t.mappingIterator(false, true, false));
+            if (cast)
+                return spillData(t -> t.iterator(false, false, true, false));
+            return SpillingList.collect(stringArrayIterator(false), page -> new ArrayList<>(page),
+                    dataSpillThreshold(), datapackage.getDataSpillDirectory());
+        }
         List<Object> retVal = new ArrayList<>();
         ensureDataLoaded();
         Iterator iter;
@@ -260,8 +479,9 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
     public String getDataAsJson() {
         List<Map<String, Object>> rows = new ArrayList<>();
         Schema schema = (null != this.schema) ? this.schema : this.inferSchema();
+        List<Table> tables;
         try {
-            ensureDataLoaded();
+            tables = ensureDataLoaded();
         } catch (Exception e) {
             throw new DataPackageException(e);
         }
@@ -302,7 +522,7 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
     public String getDataAsCsv(Dialect dialect, Schema schema) {
         StringBuilder out = new StringBuilder();
         try {
-            ensureDataLoaded();
+            List<Table> tables = ensureDataLoaded();
             if (null == schema) {
                 return getDataAsCsv(dialect, inferSchema());
             }
@@ -311,11 +531,18 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
             CSVPrinter csvPrinter = new CSVPrinter(out, locFormat);
             String[] headerNames = schema.getHeaders();
 
+            boolean caseSensitive = (null != this.dialect) && this.dialect.isCaseSensitiveHeader();
             for (Table table : tables) {
                 String[] headers = table.getHeaders();
                 if (null == headerNames) {
                     headerNames = headers;
                 }
+                if (headerNames.length < headers.length) {
+                    // the Schema projects the table to some of its columns, only read and cast these
+                    Projection projection = Projection.of(headerNames, headers, schema, caseSensitive);
+                    appendCSVDataToPrinter(table, projection, schema, csvPrinter);
+                    continue;
+                }
                 Map<Integer, Integer> mapping = TableSchemaUtil.createSchemaHeaderMapping(
                         headers,
                         headerNames,
@@ -343,32 +570,90 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
 
     @Override
     public <C> List<C> getData(Class<C> beanClass)  throws Exception {
+        if (dataSpillThreshold() > 0)
+            return spillData(t -> t.iterator(beanClass, false));
+        return readBeans(beanClass);
+    }
+
+    private <C> List<C> readBeans(Class<C> beanClass) throws Exception {
         List<C> retVal = new ArrayList<C>();
-        ensureDataLoaded();
-        for (Table t : tables) {
-            final BeanIterator<C> iter = (BeanIterator<C>) t.iterator(beanClass, false);
+        List<Table> tables = ensureDataLoaded();
+        AtomicLongArray counts = rowCounts(tables);
+        for (int i = 0; i < tables.size(); i++) {
+            int before = retVal.size();
+            final BeanIterator<C> iter = (BeanIterator<C>) tables.get(i).iterator(beanClass, false);
             while (iter.hasNext()) {
                 retVal.add(iter.next());
             }
+            counts.set(i, retVal.size() - before);
         }
         return retVal;
     }
 
+    /**
+     * @return the estimated heap size of raw rows the methods reading all data hold in memory before spilling
+     * to disk, 0 to read all data into memory, see {@link Package#setDataSpillThreshold(long)}
+     */
+    long dataSpillThreshold() {
+        return (null != datapackage) ? datapackage.getDataSpillThreshold() : 0;
+    }
+
+    /**
+     * Read all rows into a {@link SpillingList} if their raw values exceed the spill threshold, otherwise into
+     * a List in memory. The raw values of the fields are read once, and cast a page at a time through a
+     * {@link Table} with the Schema of this Resource, so they are cast like the rows read without a threshold.
+     * Spilled rows are cast when they are read from the list, rows kept in memory right away.
+     *
+     * @param tableRows returns the rows of a table, like the path without a threshold does for each table of
+     *                  this Resource
+     * @return the rows
+     * @throws Exception if reading the data fails
+     */
+    <E> List<E> spillData(Function<Table, Iterator<?>> tableRows) throws Exception {
+        List<Table> tables = ensureDataLoaded();
+        Schema rowSchema = (null != schema) ? schema : tables.get(0).getSchema();
+        String[] names = (null != rowSchema) ? rowSchema.getHeaders() : tables.get(0).getHeaders();
+        return SpillingList.collect(projectedIterator(names, null, Projection::project),
+                page -> castPage(names, rowSchema, page, tableRows),
+                dataSpillThreshold(), datapackage.getDataSpillDirectory());
+    }
+
+    // cast a page of raw rows through a Table holding just these rows
+    private static <E> List<E> castPage(String[] names, Schema rowSchema, List<String[]> page,
+                                        Function<Table, Iterator<?>> tableRows) {
+        List<String[]> rows = new ArrayList<>(page.size() + 1);
+        rows.add(names);
+        rows.addAll(page);
+        Table table = Table.fromSource(JsonUtil.getInstance().serialize(rows), rowSchema,
+                Dialect.DEFAULT.toCsvFormat());
+        List<E> retVal = new ArrayList<>(page.size());
+        tableRows.apply(table).forEachRemaining(row -> retVal.add((E) row));
+        return retVal;
+    }
+
     @Override
 	@JsonIgnore
     public String[] getHeaders() throws Exception{
-        ensureDataLoaded();
-        return tables.get(0).getHeaders();
+        return ensureDataLoaded().get(0).getHeaders();
     }
 
     @Override
 	@JsonIgnore
     public List<Table> getTables() throws Exception {
-        ensureDataLoaded();
-        return tables;
+        return ensureDataLoaded();
     }
 
     public void checkRelations(Package pkg) {
+        checkRelations(pkg, null);
+    }
+
+    @Override
+    public void checkRelations(Package pkg, ForeignKeyViolationSink sink) {
+        checkRelations(pkg, sink, null);
+    }
+
+    @Override
+    public void checkRelations(Package pkg, ForeignKeyViolationSink sink, ForeignKeyIndexCache cache) {
         if (null != schema) {
             List<PackageForeignKey> fks = new ArrayList<>();
             for (ForeignKey fk : schema.getForeignKeys()) {
@@ -393,56 +678,107 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
                 }
             }
 
+            // share indexes with the other Resources checked with the same cache
+            boolean ownCache = (null == cache);
+            if (ownCache) {
+                cache = new ForeignKeyIndexCache();
+            }
             try {
-                Map<PackageForeignKey, List<Object>> map = new HashMap<>();
-                for (PackageForeignKey fk : fks) {
-                    String refResourceName = fk.getForeignKey().getReference().getResource();
-                    Resource refResource = pkg.getResource(refResourceName);
-                    List<Object> data = refResource.getData(true, false, true, false);
-                    map.put(fk, data);
-                }
-                List<Object> data = this.getData(true, false, true, false);
-                for (Object d : data) {
-                    Map<String, Object> row = (Map<String, Object>) d;
-                    for (String key : row.keySet()) {
-                        for (PackageForeignKey fk : map.keySet()) {
-                            if (fk.getForeignKey().getFieldNames().contains(key)) {
-                                List<Object>refData = map.get(fk);
-                                Map<String, String> fieldMapping = fk.getForeignKey().getFieldMapping();
-                                String refFieldName = fieldMapping.get(key);
-                                Object fkVal = row.get(key);
-                                if (fkVal == null) {
-                                    continue;
-                                }
-                                boolean found = false;
-
-                                for (Object refRow : refData) {
-                                    Map<String, Object> refRowMap = (Map<String, Object>) refRow;
-                                    Object refVal = refRowMap.get(refFieldName);
-                                    if (Objects.equals(fkVal, refVal)) {
-                                        found = true;
-                                        break;
-                                    }
-                                }
-                                if (!found) {
-                                    throw new ForeignKeyException("Foreign key validation failed: "
-                                            + fk.getForeignKey().getFieldNames() + " -> "
-                                            + fk.getForeignKey().getReference().getFieldNames() + ": '"
-                                            + fkVal + "' not found in resource '"
-                                            + fk.getForeignKey().getReference().getResource()+"'.");
-                                }
-                            }
-                        }
+                Map<PackageForeignKey, ForeignKeyIndex> indexes = cache.getAll(fks, pkg.getValidationExecutor());
+                List<Map<String, Object>> batch = new ArrayList<>(FK_PROBE_BATCH_SIZE);
+                long rowNumber = 1;
+                Iterator<Map<String, Object>> iter = this.mappingIterator(false);
+                while (iter.hasNext()) {
+                    batch.add(iter.next());
+                    if ((batch.size() == FK_PROBE_BATCH_SIZE) || !iter.hasNext()) {
+                        checkRelations(batch, rowNumber, indexes, sink);
+                        rowNumber += batch.size();
+                        batch.clear();
                     }
-
                 }
             } catch (Exception e) {
                 throw new DataPackageValidationException("Error reading data with relations: " + e.getMessage(), e);
+            } finally {
+                if (ownCache) {
+                    try {
+                        cache.close();
+                    } catch (IOException ignored) {}
+                }
+            }
+        }
+    }
+
+    /**
+     * Look up the foreign keys of a batch of rows. The keys of each foreign key are probed in one batch,
+     * then the rows are checked in order, so violations are reported in the order of the Resource. Without a sink,
+     * the first violation is thrown.
+     * Multi-column keys are looked up as a whole tuple; rows with a null value in any key column are skipped.
+     */
+    private void checkRelations(List<Map<String, Object>> rows, long firstRowNumber,
+                                Map<PackageForeignKey, ForeignKeyIndex> indexes, ForeignKeyViolationSink sink)
+            throws ForeignKeyException {
+        Map<PackageForeignKey, boolean[]> found = new HashMap<>();
+        Map<PackageForeignKey, int[]> probedRows = new HashMap<>();
+        for (Map.Entry<PackageForeignKey, ForeignKeyIndex> entry : indexes.entrySet()) {
+            List<String> fieldNames = entry.getKey().getForeignKey().getFieldNames();
+            List<List<Object>> keys = new ArrayList<>(rows.size());
+            int[] rowNumbers = new int[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                List<Object> key = foreignKeyValues(rows.get(i), fieldNames);
+                if (null != key) {
+                    rowNumbers[keys.size()] = i;
+                    keys.add(key);
+                }
+            }
+            found.put(entry.getKey(), entry.getValue().containsAll(keys));
+            probedRows.put(entry.getKey(), Arrays.copyOf(rowNumbers, keys.size()));
+        }
+
+        int[] positions = new int[indexes.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            int cnt = 0;
+            for (PackageForeignKey fk : indexes.keySet()) {
+                int[] rowNumbers = probedRows.get(fk);
+                int position = positions[cnt];
+                if ((position < rowNumbers.length) && (rowNumbers[position] == i)) {
+                    positions[cnt]++;
+                    if (!found.get(fk)[position]) {
+                        List<String> fieldNames = fk.getForeignKey().getFieldNames();
+                        ForeignKeyViolation violation = new ForeignKeyViolation(getName(), firstRowNumber + i,
+                                fieldNames, foreignKeyValues(rows.get(i), fieldNames),
+                                fk.getReferencedResource().getName(),
+                                fk.getForeignKey().getReference().getFieldNames());
+                        if (null == sink) {
+                            throw new ForeignKeyException(violation.getMessage());
+                        }
+                        sink.accept(violation);
+                    }
+                }
+                cnt++;
+            }
+        }
+    }
+
+    // values of the foreign key fields of a row, null if any of them is null
+    private static List<Object> foreignKeyValues(Map<String, Object> row, List<String> fieldNames) {
+        List<Object> key = new ArrayList<>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            Object fkVal = row.get(fieldName);
+            if (fkVal == null) {
+                return null;
             }
+            key.add(fkVal);
         }
+        return key;
     }
 
+    @Override
     public void validate(Package pkg)  {
+        validate(pkg, null);
+    }
+
+    @Override
+    public void validate(Package pkg, ForeignKeyIndexCache cache)  {
 
         try {
             // Validate required fields
@@ -468,11 +804,13 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
                     throw new DataPackageValidationException("Schema validation failed for resource " + getName() + ": " + e.getMessage(), e);
                 }
             }
+            // only validate data that was read, the tables may be released concurrently
+            List<Table> tables = this.tables;
             if (null == tables)
                 return;
             // will validate schema against data
             tables.forEach(Table::validate);
-            checkRelations(pkg);
+            checkRelations(pkg, null, cache);
         } catch (Exception ex) {
             if (ex instanceof DataPackageValidationException) {
                 errors.add((DataPackageValidationException) ex);
@@ -745,11 +1083,59 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
 
     public abstract Set<String> getDatafileNamesForWriting();
 
+    /**
+     * Return the tables of this Resource, loading them if they are not loaded yet. If the Package of this
+     * Resource has a {@link TableCache}, the cache is told about the read and the tables of other Resources,
+     * or these tables, may be released to keep the cache within its budget. Callers must use the returned
+     * list instead of the `tables` field, which is null after a release.
+     *
+     * @return the tables
+     * @throws Exception if reading the tables fails
+     */
     List<Table> ensureDataLoaded () throws Exception {
-        if (null == tables) {
-            tables = readData();
+        List<Table> retVal;
+        boolean loaded = false;
+        synchronized (this) {
+            retVal = tables;
+            if (null == retVal) {
+                retVal = tables = readData();
+                loaded = true;
+            }
+        }
+        TableCache cache = (null != datapackage) ? datapackage.getTableCache() : null;
+        if (null == cache)
+            return retVal;
+        if (!loaded) {
+            cache.hit(this);
+            return retVal;
+        }
+        // release outside of the locks of the cache and of this Resource, so no two locks are held at once
+        for (AbstractResource<?> evicted : cache.loaded(this, estimateDataBytes())) {
+            evicted.releaseTables();
+        }
+        return retVal;
+    }
+
+    /**
+     * Drop the reference to the loaded tables, they are loaded again when the Resource is read the next time.
+     * The relation indexes built from them are dropped as well.
+     */
+    void releaseTables() {
+        synchronized (this) {
+            tables = null;
+            countedTables = null;
+            rowCounts = null;
         }
-        return tables;
+        Package pkg = datapackage;
+        if (null != pkg)
+            pkg.getRelationIndexCache().invalidate(this);
+    }
+
+    /**
+     * @return the estimated heap size of the tables of this Resource in bytes, 0 if it is not known
+     */
+    long estimateDataBytes() {
+        return 0;
     }
 
     @Override
@@ -834,6 +1220,30 @@ public abstract class AbstractResource<T> extends JSONBase implements Resource<T
         }
     }
 
+    /**
+     * Append the columns of the data picked by a {@link Projection} to a {@link org.apache.commons.csv.CSVPrinter}.
+     * @param projection the projection of the table to the fields of the Schema
+     * @param schema the Schema to use for formatting the data
+     * @param csvPrinter the CSVPrinter to write to
+     */
+    private void appendCSVDataToPrinter(Table table, Projection projection, Schema schema, CSVPrinter csvPrinter) {
+        table.stringArrayIterator().forEachRemaining((row) -> {
+            Object[] values = projection.cast(row);
+            List<String> obj = new ArrayList<>();
+            int i = 0;
+            for (Field field : schema.getFields()) {
+                obj.add(field.formatValueAsString(values[i]));
+                i++;
+            }
+
+            try {
+                csvPrinter.printRecord(obj);
+            } catch (Exception ex) {
+                throw new TableIOException(ex);
+            }
+        });
+    }
+
     /**
      * Append the data to a {@link org.apache.commons.csv.CSVPrinter}. Column sorting is according to the mapping
      * @param mapping the mapping of the column numbers in the CSV file to the column numbers in the data source
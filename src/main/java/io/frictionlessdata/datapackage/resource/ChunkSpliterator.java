@@ -0,0 +1,90 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the rows of one or more {@link MappedTable}s, cut into chunks at record boundaries. Splitting
+ * hands off half of the remaining chunks, so parallel streams parse and cast the chunks of a large file
+ * concurrently. Rows of a chunk are read by one thread, in file order.
+ *
+ * The estimated size is the number of remaining bytes, which is an upper bound of the number of rows.
+ */
+final class ChunkSpliterator<T> implements Spliterator<T> {
+    private final List<Chunk> chunks;
+    private final BiFunction<MappedTable, String[], T> converter;
+    private int from;
+    private final int to;
+    private Chunk current;
+    private CsvRecordScanner scanner;
+
+    ChunkSpliterator(List<Chunk> chunks, BiFunction<MappedTable, String[], T> converter) {
+        this(chunks, 0, chunks.size(), converter);
+    }
+
+    private ChunkSpliterator(List<Chunk> chunks, int from, int to, BiFunction<MappedTable, String[], T> converter) {
+        this.chunks = chunks;
+        this.from = from;
+        this.to = to;
+        this.converter = converter;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (true) {
+            if (null == scanner) {
+                if (from >= to)
+                    return false;
+                current = chunks.get(from++);
+                scanner = current.table.scanner(current.start, current.end);
+            }
+            String[] record = scanner.next();
+            if (null != record) {
+                action.accept(converter.apply(current.table, record));
+                return true;
+            }
+            scanner = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if ((null != scanner) || (to - from < 2))
+            return null;
+        int mid = (from + to) >>> 1;
+        Spliterator<T> prefix = new ChunkSpliterator<>(chunks, from, mid, converter);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long bytes = (null != scanner) ? current.end - scanner.position() : 0;
+        for (int i = from; i < to; i++) {
+            bytes += chunks.get(i).end - chunks.get(i).start;
+        }
+        return Math.max(bytes, 0);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * A range of records of a table, from the record starting at `start` to the last one starting before `end`.
+     */
+    static final class Chunk {
+        final MappedTable table;
+        final long start;
+        final long end;
+
+        Chunk(MappedTable table, long start, long end) {
+            this.table = table;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.Dialect;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Byte-level CSV record scanner over a {@link MappedFile}, following the CSV {@link Dialect} of a Resource.
+ *
+ * Delimiter, quote, escape and comment characters are matched on bytes, so the scanner only handles dialects
+ * where they are single ASCII characters, and charsets in which ASCII bytes never occur inside multi-byte
+ * characters, see {@link #supports(Dialect, Charset)}. Fields are decoded once they are complete.
+ *
+ * The scanner reads the records that start in a range of the file. A record starting before the end of the
+ * range is read completely, even if it extends beyond the range.
+ */
+final class CsvRecordScanner {
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte SPACE = ' ';
+    // no byte ever matches
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final MappedFile file;
+    private final long end;
+    private final Charset charset;
+    private final byte delimiter;
+    // NONE if the dialect has no such character
+    private final int quote;
+    private final int escape;
+    private final int comment;
+    private final boolean doubleQuote;
+    private final boolean trimSpaces;
+
+    // the null sequence encoded in the charset, null if the dialect has none
+    private final byte[] nullBytes;
+
+    private long position;
+    // unescaped bytes of all fields of the current record, one after the other
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+
+    /**
+     * @param file the file to scan
+     * @param start position of the first record, must be at a record boundary
+     * @param end position after which no record starts
+     * @param dialect the CSV dialect, null for the default dialect
+     * @param charset the charset of the file
+     */
+    CsvRecordScanner(MappedFile file, long start, long end, Dialect dialect, Charset charset) {
+        Dialect d = (null != dialect) ? dialect : Dialect.DEFAULT;
+        this.file = file;
+        this.end = Math.min(end, file.size());
+        this.charset = charset;
+        this.delimiter = (byte) d.getDelimiter().charAt(0);
+        this.quote = (null != d.getQuoteChar()) ? d.getQuoteChar() : NONE;
+        this.escape = (null != d.getEscapeChar()) ? d.getEscapeChar() : NONE;
+        this.comment = (null != d.getCommentChar()) ? d.getCommentChar() : NONE;
+        this.doubleQuote = d.isDoubleQuote();
+        this.trimSpaces = d.isSkipInitialSpace();
+        this.nullBytes = (null != d.getNullSequence()) ? d.getNullSequence().getBytes(charset) : null;
+        this.position = start;
+        if ((start == 0) && (file.size() >= 3) && charset.equals(StandardCharsets.UTF_8)
+                && (file.get(0) == (byte) 0xEF) && (file.get(1) == (byte) 0xBB) && (file.get(2) == (byte) 0xBF)) {
+            // skip the byte order mark
+            this.position = 3;
+        }
+    }
+
+    /**
+     * @param dialect the CSV dialect, null for the default dialect
+     * @param charset the charset of the file
+     * @return true if files in `dialect` and `charset` can be scanned on bytes
+     */
+    static boolean supports(Dialect dialect, Charset charset) {
+        Dialect d = (null != dialect) ? dialect : Dialect.DEFAULT;
+        if ((null == d.getDelimiter()) || (d.getDelimiter().length() != 1))
+            return false;
+        if (!isAscii(d.getDelimiter().charAt(0)) || !isAscii(d.getQuoteChar())
+                || !isAscii(d.getEscapeChar()) || !isAscii(d.getCommentChar()))
+            return false;
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return position of the next record
+     */
+    long position() {
+        return position;
+    }
+
+    /**
+     * @return the fields of the next record, null values for fields matching the null sequence of the dialect,
+     * or null if no more records start in the range
+     */
+    String[] next() {
+        if (!advance())
+            return null;
+        String[] retVal = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            retVal[i] = isNull(i) ? null : field(i);
+        }
+        return retVal;
+    }
+
+    /**
+     * Read the next record into the field buffer of the scanner, without decoding its fields. The fields stay
+     * valid until the next call.
+     *
+     * @return false if no more records start in the range
+     */
+    boolean advance() {
+        while (position < end) {
+            byte b = file.get(position);
+            if ((b == comment) || (b == LF) || (b == CR)) {
+                // comment or empty line
+                skipLine();
+                continue;
+            }
+            readRecord();
+            return true;
+        }
+        fieldCount = 0;
+        return false;
+    }
+
+    /**
+     * @return the number of fields of the current record
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return the buffer holding the unescaped bytes of the fields of the current record
+     */
+    byte[] buffer() {
+        return buffer;
+    }
+
+    /**
+     * @param index the index of a field of the current record
+     * @return the position of the first byte of the field in {@link #buffer()}
+     */
+    int fieldStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @param index the index of a field of the current record
+     * @return the position after the last byte of the field in {@link #buffer()}
+     */
+    int fieldEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * @param index the index of a field of the current record
+     * @return true if the field matches the null sequence of the dialect
+     */
+    boolean isNull(int index) {
+        if (null == nullBytes)
+            return false;
+        int length = ends[index] - starts[index];
+        return (length == nullBytes.length)
+                && Arrays.equals(buffer, starts[index], ends[index], nullBytes, 0, length);
+    }
+
+    /**
+     * @param index the index of a field of the current record
+     * @return the decoded field
+     */
+    String field(int index) {
+        return new String(buffer, starts[index], ends[index] - starts[index], charset);
+    }
+
+    /**
+     * Split the records from the current position to the end of the file into chunks of about `chunkSize` bytes.
+     * Chunks start at record boundaries, found by tracking quotes, escapes and comments the same way records are
+     * read, without decoding any fields.
+     *
+     * @param chunkSize the target size of the chunks in bytes
+     * @return the start positions of the chunks, followed by the end of the file
+     */
+    long[] split(long chunkSize) {
+        long size = file.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(position);
+        long next = position + chunkSize;
+        boolean lineStart = true;
+        boolean fieldStart = true;
+        boolean inQuotes = false;
+        long pos = position;
+        while (pos < size) {
+            byte b = file.get(pos);
+            if (inQuotes) {
+                if ((b == escape) && (escape != quote)) {
+                    pos++;
+                } else if (b == quote) {
+                    if (doubleQuote && (pos + 1 < size) && (file.get(pos + 1) == quote))
+                        pos++;
+                    else
+                        inQuotes = false;
+                }
+                pos++;
+                continue;
+            }
+            if ((b == LF) || (b == CR)) {
+                pos++;
+                if ((b == CR) && (pos < size) && (file.get(pos) == LF))
+                    pos++;
+                if ((pos >= next) && (pos < size)) {
+                    boundaries.add(pos);
+                    next = pos + chunkSize;
+                }
+                lineStart = true;
+                fieldStart = true;
+                continue;
+            }
+            if (lineStart && (b == comment)) {
+                while ((pos < size) && (file.get(pos) != LF) && (file.get(pos) != CR))
+                    pos++;
+                continue;
+            }
+            lineStart = false;
+            if (b == delimiter) {
+                fieldStart = true;
+            } else if (fieldStart && (b == quote)) {
+                inQuotes = true;
+                fieldStart = false;
+            } else if (b == escape) {
+                pos++;
+                fieldStart = false;
+            } else if (!(fieldStart && trimSpaces && (b == SPACE))) {
+                fieldStart = false;
+            }
+            pos++;
+        }
+        boundaries.add(size);
+        long[] retVal = new long[boundaries.size()];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = boundaries.get(i);
+        }
+        return retVal;
+    }
+
+    private void readRecord() {
+        fieldCount = 0;
+        length = 0;
+        long size = file.size();
+        while (true) {
+            int start = length;
+            boolean inQuotes = false;
+            if (trimSpaces) {
+                while ((position < size) && (file.get(position) == SPACE))
+                    position++;
+            }
+            if ((position < size) && (file.get(position) == quote)) {
+                inQuotes = true;
+                position++;
+            }
+            int unquotedLength = start;
+            while (position < size) {
+                byte b = file.get(position);
+                if (inQuotes) {
+                    if ((b == escape) && (escape != quote) && (position + 1 < size)) {
+                        append(file.get(position + 1));
+                        position += 2;
+                    } else if (b == quote) {
+                        if (doubleQuote && (position + 1 < size) && (file.get(position + 1) == quote)) {
+                            append(b);
+                            position += 2;
+                        } else {
+                            inQuotes = false;
+                            position++;
+                            unquotedLength = length;
+                        }
+                    } else {
+                        append(b);
+                        position++;
+                    }
+                } else if ((b == delimiter) || (b == LF) || (b == CR)) {
+                    break;
+                } else if ((b == escape) && (position + 1 < size)) {
+                    append(file.get(position + 1));
+                    position += 2;
+                } else {
+                    append(b);
+                    position++;
+                }
+            }
+            if (trimSpaces) {
+                // trailing spaces after the closing quote or of an unquoted value
+                while ((length > unquotedLength) && (buffer[length - 1] == SPACE))
+                    length--;
+            }
+            addField(start, length);
+            if ((position < size) && (file.get(position) == delimiter)) {
+                position++;
+                continue;
+            }
+            skipLineEnd();
+            return;
+        }
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void append(byte b) {
+        if (length == buffer.length)
+            buffer = Arrays.copyOf(buffer, length * 2);
+        buffer[length++] = b;
+    }
+
+    private void skipLine() {
+        long size = file.size();
+        while ((position < size) && (file.get(position) != LF) && (file.get(position) != CR))
+            position++;
+        skipLineEnd();
+    }
+
+    private void skipLineEnd() {
+        long size = file.size();
+        if ((position < size) && (file.get(position) == CR))
+            position++;
+        if ((position < size) && (file.get(position) == LF))
+            position++;
+    }
+
+    private static boolean isAscii(Character c) {
+        return (null == c) || (c < 128);
+    }
+}
@@ -3,21 +3,30 @@ package io.frictionlessdata.datapackage.resource;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import io.frictionlessdata.datapackage.Dialect;
 import io.frictionlessdata.datapackage.Profile;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
 import io.frictionlessdata.tableschema.Table;
+import io.frictionlessdata.tableschema.schema.Schema;
 import io.frictionlessdata.tableschema.tabledatasource.TableDataSource;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.collections4.iterators.IteratorChain;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 @JsonInclude(value = Include.NON_EMPTY, content = Include.NON_EMPTY )
@@ -28,6 +37,23 @@ public class FilebasedResource extends AbstractReferencebasedResource<File> {
     @JsonIgnore
     private boolean isInArchive;
 
+    // directory the entries of an archive Resource are extracted to, so they can be read as files
+    @JsonIgnore
+    private Path extractDirectory;
+
+    @JsonIgnore
+    private boolean memoryMapped = false;
+
+    // the mapped tables, and the Schema and Dialect they were opened with
+    @JsonIgnore
+    private List<MappedTable> mappedTables;
+
+    @JsonIgnore
+    private Schema mappedSchema;
+
+    @JsonIgnore
+    private Dialect mappedDialect;
+
 
     /**
      * The charset (encoding) for writing
@@ -96,7 +122,7 @@ public class FilebasedResource extends AbstractReferencebasedResource<File> {
     byte[] getRawData(File input)  throws IOException {
         if (this.isInArchive) {
             String fileName = input.getPath().replaceAll("\\\\", "/");
-            return getZipFileContentAsString (basePath.toPath(), fileName, true).getBytes(charset);
+            return getZipFileContentAsByteArray(basePath.toPath(), fileName, true);
         } else {
             File file = new File(this.basePath, input.getPath());
             try (InputStream inputStream = Files.newInputStream(file.toPath())) {
@@ -118,14 +144,213 @@ public class FilebasedResource extends AbstractReferencebasedResource<File> {
         return reference.getPath();
     }
 
+    /**
+     * @return true if the data files of this Resource are read memory-mapped, where possible
+     */
+    @JsonIgnore
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    /**
+     * Read the CSV files of this Resource memory-mapped, with a byte-level scanner instead of buffered streams.
+     * Repeated scans of the same large files then read from the OS page cache without copying the data through
+     * heap buffers.
+     *
+     * Only local, uncompressed CSV files in a dialect with single ASCII character delimiter, quote, escape and
+     * comment characters, and encoded in UTF-8, US-ASCII or ISO-8859-1 are read memory-mapped. Other Resources,
+     * and iterators with relations or in extended form, are read as before.
+     *
+     * @param memoryMapped true to read memory-mapped
+     */
+    @JsonIgnore
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    @Override
+    public Iterator<Object[]> objectArrayIterator(boolean extended, boolean relations) throws Exception{
+        List<MappedTable> mapped = (!extended && !relations) ? ensureMappedTables() : null;
+        if (null == mapped)
+            return super.objectArrayIterator(extended, relations);
+        IteratorChain<Object[]> ic = new IteratorChain<>();
+        mapped.forEach(t -> ic.addIterator(t.objectArrayIterator()));
+        return ic;
+    }
+
+    @Override
+    public Iterator<String[]> stringArrayIterator(boolean relations) throws Exception{
+        List<MappedTable> mapped = (!relations) ? ensureMappedTables() : null;
+        if (null == mapped)
+            return super.stringArrayIterator(relations);
+        IteratorChain<String[]> ic = new IteratorChain<>();
+        mapped.forEach(t -> ic.addIterator(t.stringArrayIterator()));
+        return ic;
+    }
+
+    @Override
+    public Iterator<String[]> stringArrayIterator() throws Exception{
+        if (null == ensureMappedTables())
+            return super.stringArrayIterator();
+        return stringArrayIterator(false);
+    }
+
+    @Override
+    public Iterator<Map<String, Object>> mappingIterator(boolean relations) throws Exception{
+        List<MappedTable> mapped = (!relations) ? ensureMappedTables() : null;
+        if (null == mapped)
+            return super.mappingIterator(relations);
+        IteratorChain<Map<String, Object>> ic = new IteratorChain<>();
+        mapped.forEach(t -> ic.addIterator(t.mappingIterator()));
+        return ic;
+    }
+
+    @Override
+    public List<Map<String, Object>> getMappedData(boolean relations) throws Exception {
+        if (relations || (dataSpillThreshold() > 0) || (null == ensureMappedTables()))
+            return super.getMappedData(relations);
+        List<Map<String, Object>> retVal = new ArrayList<>();
+        mappingIterator(false).forEachRemaining(retVal::add);
+        return retVal;
+    }
+
+    @Override
+    <E> Iterator<E> projectedIterator(String[] fields, RowFilter filter,
+                                      BiFunction<Projection, String[], E> converter) throws Exception {
+        List<MappedTable> mapped = ensureMappedTables();
+        if (null == mapped)
+            return super.projectedIterator(fields, filter, converter);
+        IteratorChain<E> ic = new IteratorChain<>();
+        for (MappedTable table : mapped) {
+            Projection projection = table.projection((null != fields) ? fields : table.getHeaders());
+            Iterator<String[]> records = table.iterator(Function.identity());
+            if (null != filter) {
+                Predicate<String[]> predicate = filter.bind(table.projection(filter.getFieldNames()));
+                records = IteratorUtils.filteredIterator(records, predicate::test);
+            }
+            ic.addIterator(IteratorUtils.transformedIterator(records, record -> converter.apply(projection, record)));
+        }
+        return ic;
+    }
+
+    /**
+     * Previews of Resources read memory-mapped (see {@link #setMemoryMapped(boolean)}) only touch the pages of
+     * the rows they read.
+     */
+    @Override
+    Iterator<Supplier<Map<String, Object>>> lazyRowIterator() throws Exception {
+        List<MappedTable> mapped = ensureMappedTables();
+        if (null == mapped)
+            return super.lazyRowIterator();
+        IteratorChain<Supplier<Map<String, Object>>> ic = new IteratorChain<>();
+        for (MappedTable table : mapped) {
+            ic.addIterator(table.iterator(record -> () -> table.toMap(table.cast(record))));
+        }
+        return ic;
+    }
+
+    /**
+     * Resources read memory-mapped (see {@link #setMemoryMapped(boolean)}) are scanned through their mapped
+     * files, so the cursor parses values straight from the bytes of the files.
+     */
+    @Override
+    public ResourceCursor cursor() throws Exception {
+        List<MappedTable> mapped = ensureMappedTables();
+        if (null == mapped)
+            return super.cursor();
+        String[] names = (null != schema) ? schema.getHeaders() : mapped.get(0).getHeaders();
+        return new MappedCursor(mapped, names);
+    }
+
+    @Override
+    public Stream<Object[]> objectArrayStream(boolean relations) throws Exception {
+        List<MappedTable> mapped = (!relations) ? ensureMappedTables() : null;
+        if (null == mapped)
+            return super.objectArrayStream(relations);
+        return StreamSupport.stream(new ChunkSpliterator<>(split(mapped), MappedTable::cast), false);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> mappingStream(boolean relations) throws Exception {
+        List<MappedTable> mapped = (!relations) ? ensureMappedTables() : null;
+        if (null == mapped)
+            return super.mappingStream(relations);
+        return StreamSupport.stream(new ChunkSpliterator<>(split(mapped), (t, r) -> t.toMap(t.cast(r))), false);
+    }
+
+    /**
+     * Stream the rows of this Resource, parsed in parallel. Local CSV files that can be read memory-mapped
+     * (see {@link #setMemoryMapped(boolean)}) are cut into chunks at record boundaries, respecting quotes
+     * and the Resource dialect, and the chunks are parsed and cast concurrently on the fork-join pool the
+     * stream runs in. Other Resources are split by path, so only the files of multi-path Resources are read concurrently.
+     *
+     * @param ordered true to return the rows in file order, false to return them as they are parsed, which
+     *                is faster if the order does not matter
+     * @return a parallel stream of rows, cast to the types of the Schema fields if there is a Schema
+     * @throws Exception if opening the files fails
+     */
+    public Stream<Object[]> parallelObjectArrayStream(boolean ordered) throws Exception {
+        List<MappedTable> mapped = openMappedTables();
+        Stream<Object[]> stream = (null != mapped)
+                ? StreamSupport.stream(new ChunkSpliterator<>(split(mapped), MappedTable::cast), true)
+                : super.objectArrayStream(false).parallel();
+        return ordered ? stream : stream.unordered();
+    }
+
+    /**
+     * Stream the rows of this Resource as Maps of header to value, parsed in parallel like
+     * {@link #parallelObjectArrayStream(boolean)}.
+     *
+     * @param ordered true to return the rows in file order, false to return them as they are parsed
+     * @return a parallel stream of rows, cast to the types of the Schema fields if there is a Schema
+     * @throws Exception if opening the files fails
+     */
+    public Stream<Map<String, Object>> parallelMappingStream(boolean ordered) throws Exception {
+        List<MappedTable> mapped = openMappedTables();
+        Stream<Map<String, Object>> stream = (null != mapped)
+                ? StreamSupport.stream(new ChunkSpliterator<>(split(mapped), (t, r) -> t.toMap(t.cast(r))), true)
+                : super.mappingStream(false).parallel();
+        return ordered ? stream : stream.unordered();
+    }
+
+    private static List<ChunkSpliterator.Chunk> split(List<MappedTable> tables) {
+        List<ChunkSpliterator.Chunk> chunks = new ArrayList<>();
+        tables.forEach(t -> chunks.addAll(t.split()));
+        return chunks;
+    }
+
+    // the mapped tables of this Resource, null if it is not read memory-mapped
+    private List<MappedTable> ensureMappedTables() throws Exception {
+        return memoryMapped ? openMappedTables() : null;
+    }
+
+    // the mapped tables of this Resource, null if its files cannot be read memory-mapped
+    private synchronized List<MappedTable> openMappedTables() throws Exception {
+        if (isInArchive)
+            return null;
+        if ((null != mappedTables) && (mappedSchema == schema) && (mappedDialect == dialect)
+                && mappedTables.stream().noneMatch(MappedTable::isStale))
+            return mappedTables;
+        // the files were changed or replaced, map them again
+        mappedTables = null;
+        Charset cs = (null != encoding) ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        if (!TableDataSource.Format.FORMAT_CSV.getLabel().equals(sniffFormat(paths))
+                || !MappedTable.supports(dialect, schema, cs))
+            return null;
+        mappedTables = loadTables(paths,
+                file -> MappedTable.open(Resource.toSecure(file.toPath(), basePath.toPath()), schema, dialect, cs));
+        mappedSchema = schema;
+        mappedDialect = dialect;
+        return mappedTables;
+    }
+
     @Override
     @JsonIgnore
     public String[] getHeaders() throws Exception{
         if ((null != profile) && (profile.equals(Profile.PROFILE_DATA_PACKAGE_DEFAULT))) {
             return null;
         }
-        ensureDataLoaded();
-        return tables.get(0).getHeaders();
+        return ensureDataLoaded().get(0).getHeaders();
     }
 
     @Override
@@ -140,19 +365,114 @@ public class FilebasedResource extends AbstractReferencebasedResource<File> {
         return tables;
     }
 
-    private List<Table> readFromZipFile() throws IOException {
-        List<Table> tables = new ArrayList<>();
+    /*
+     * The tables hold the text of their files, so the size of the files, or of the extracted entries of an
+     * archive Resource, is the estimate.
+     */
+    @Override
+    long estimateDataBytes() {
+        long retVal = 0;
         for (File file : paths) {
+            try {
+                Path path = isInArchive
+                        ? extractDirectory.resolve(file.getPath().replaceAll("\\\\", "/")).normalize()
+                        : Resource.toSecure(file.toPath(), basePath.toPath());
+                retVal += Files.size(path);
+            } catch (IOException ignored) {
+                // not known, eg. for files that were deleted after loading
+            }
+        }
+        return retVal;
+    }
+
+    /*
+     * The entries are streamed to temporary files and parsed from there like ordinary files, so memory use
+     * does not grow with the size of the entries. The files are deleted when the tables are released or the
+     * Package is closed. Each extraction gets its own directory inside a common root directory, which is
+     * deleted by a single shutdown hook if neither happens, so reloading registers nothing per file.
+     */
+    private List<Table> readFromZipFile() throws Exception {
+        if (null == extractDirectory) {
+            extractDirectory = Files.createTempDirectory(ExtractRoot.PATH, "datapackage-").toAbsolutePath();
+        }
+        return loadTables(paths, file -> {
             String fileName = file.getPath().replaceAll("\\\\", "/");
-            String content = getZipFileContentAsString (basePath.toPath(), fileName, true);
-            Table table = Table.fromSource(content, schema, getCsvFormat());
-            tables.add(table);
+            Path securePath = extractDirectory.resolve(fileName).normalize();
+            if (!securePath.startsWith(extractDirectory) || securePath.equals(extractDirectory)) {
+                throw new DataPackageValidationException("Path entries for file-based Resources cannot " +
+                        "escape the base path: " + fileName);
+            }
+            Path relativePath = extractDirectory.relativize(securePath);
+            Files.createDirectories(securePath.getParent());
+            copyZipFileEntry(basePath.toPath(), fileName, securePath);
+            return Table.fromSource(relativePath.toFile(), extractDirectory.toFile(), schema, getCsvFormat());
+        });
+    }
+
+
+    /**
+     * Release the loaded tables and delete the files extracted from the archive of a Resource read from a ZIP
+     * file. The Resource stays usable, its entries are extracted again when it is read the next time. Called
+     * by {@link io.frictionlessdata.datapackage.Package#close()}. Other Resources are left unchanged.
+     */
+    public void releaseExtractedFiles() {
+        if (isInArchive)
+            releaseTables();
+    }
+
+    @Override
+    void releaseTables() {
+        // under the lock that guards loading, so a concurrent read cannot extract into a directory being deleted
+        synchronized (this) {
+            super.releaseTables();
+            deleteExtractDirectory();
         }
-        return tables;
     }
-    private List<Table> readFromOrdinaryFile() throws IOException {
-        List<Table> tables = new ArrayList<>();
-        for (File file : paths) {
+
+    private void deleteExtractDirectory() {
+        if (null == extractDirectory)
+            return;
+        deleteRecursively(extractDirectory);
+        extractDirectory = null;
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            // children before their parents
+            files.sorted(Comparator.reverseOrder()).forEach(f -> {
+                try {
+                    Files.deleteIfExists(f);
+                } catch (IOException ignored) {
+                    // still open, deleted on exit
+                }
+            });
+        } catch (IOException ignored) {
+            // deleted on exit
+        }
+    }
+
+    // the root of the extract directories, created on first use and deleted with all its content on exit
+    private static final class ExtractRoot {
+        private static final Path PATH = create();
+
+        private static Path create() {
+            try {
+                Path retVal = Files.createTempDirectory("datapackage-extract-").toAbsolutePath();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteRecursively(retVal)));
+                return retVal;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    // the directory the entries of an archive Resource are extracted to, null if none were extracted
+    Path getExtractDirectory() {
+        return extractDirectory;
+    }
+
+    private List<Table> readFromOrdinaryFile() throws Exception {
+        return loadTables(paths, file -> {
                 /* from the spec: "SECURITY: / (absolute path) and ../ (relative parent path)
                    are forbidden to avoid security vulnerabilities when implementing data
                    package software."
@@ -161,10 +481,8 @@ public class FilebasedResource extends AbstractReferencebasedResource<File> {
                  */
             Path securePath = Resource.toSecure(file.toPath(), basePath.toPath());
             Path relativePath = basePath.toPath().relativize(securePath);
-            Table table = createTable(relativePath.toFile());
-            tables.add(table);
-        }
-        return tables;
+            return createTable(relativePath.toFile());
+        });
     }
 
     @JsonIgnore
@@ -0,0 +1,76 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.Dialect;
+
+import java.util.Iterator;
+
+/**
+ * {@link ResourceCursor} over rows returned by an iterator, holding Strings or values cast from them. Used for
+ * Resources whose data is not read by a {@link CsvRecordScanner}. Like the scanner, it treats String values
+ * matching the null sequence of the dialect as null.
+ */
+final class IteratorCursor implements ResourceCursor {
+    private final Iterator<Object[]> rows;
+    private final String[] headers;
+    private final String nullSequence;
+    private Object[] row;
+
+    /**
+     * @param rows the rows
+     * @param headers the names of the columns
+     * @param dialect the dialect of the Resource, null for the default dialect
+     */
+    IteratorCursor(Iterator<Object[]> rows, String[] headers, Dialect dialect) {
+        this.rows = rows;
+        this.headers = headers;
+        this.nullSequence = ((null != dialect) ? dialect : Dialect.DEFAULT).getNullSequence();
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    @Override
+    public boolean next() {
+        row = rows.hasNext() ? rows.next() : null;
+        return null != row;
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        Object value = value(column);
+        return (null == value) || "".equals(value) || ((null != nullSequence) && nullSequence.equals(value));
+    }
+
+    @Override
+    public long getLong(int column) {
+        if (isNull(column))
+            return 0;
+        Object value = value(column);
+        return (value instanceof Number) ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+    }
+
+    @Override
+    public double getDouble(int column) {
+        if (isNull(column))
+            return 0;
+        Object value = value(column);
+        return (value instanceof Number) ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    @Override
+    public String getString(int column) {
+        Object value = value(column);
+        return (null != value) ? value.toString() : null;
+    }
+
+    private Object value(int column) {
+        if (null == row)
+            throw new IllegalStateException("Cursor is not on a row");
+        if ((column < 0) || (column >= headers.length))
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + headers.length
+                    + " columns");
+        return (column < row.length) ? row[column] : null;
+    }
+}
@@ -0,0 +1,202 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.util.List;
+
+/**
+ * {@link ResourceCursor} over {@link MappedTable}s. Records are read into the reused field buffer of a
+ * {@link CsvRecordScanner}, and integers and plain decimals are parsed from the bytes of that buffer, so
+ * scanning allocates nothing per row. Only {@link #getString(int)} and numbers outside the fast path, like
+ * decimals with more than 15 significant digits, decode the field.
+ */
+final class MappedCursor implements ResourceCursor {
+    // powers of ten that are exact as doubles
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    // significant digits that always fit into the 53 bit mantissa of a double
+    private static final int MAX_EXACT_DIGITS = 15;
+    // digits that always fit into a long
+    private static final int MAX_LONG_DIGITS = 18;
+
+    private List<MappedTable> tables;
+    private final String[] headers;
+    private int table = -1;
+    private CsvRecordScanner scanner;
+    // for each column, its field in the records of the current table
+    private final int[] columns;
+    private boolean onRow;
+
+    MappedCursor(List<MappedTable> tables, String[] headers) {
+        this.tables = tables;
+        this.headers = headers;
+        this.columns = new int[headers.length];
+    }
+
+    @Override
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    @Override
+    public boolean next() {
+        while (true) {
+            if ((null != scanner) && scanner.advance()) {
+                onRow = true;
+                return true;
+            }
+            if (++table >= tables.size()) {
+                scanner = null;
+                onRow = false;
+                return false;
+            }
+            MappedTable t = tables.get(table);
+            Projection projection = t.projection(headers);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = projection.getColumn(i);
+            }
+            scanner = t.dataScanner();
+        }
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        int field = field(column);
+        return (field < 0) || (scanner.fieldStart(field) == scanner.fieldEnd(field)) || scanner.isNull(field);
+    }
+
+    @Override
+    public long getLong(int column) {
+        if (isNull(column))
+            return 0;
+        int field = field(column);
+        byte[] buffer = scanner.buffer();
+        int pos = skipSpaces(buffer, scanner.fieldStart(field), scanner.fieldEnd(field));
+        int end = trimSpaces(buffer, pos, scanner.fieldEnd(field));
+        boolean negative = (pos < end) && (buffer[pos] == '-');
+        if ((pos < end) && ((buffer[pos] == '-') || (buffer[pos] == '+')))
+            pos++;
+        if ((pos == end) || (end - pos > MAX_LONG_DIGITS))
+            return Long.parseLong(scanner.field(field).trim());
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = buffer[pos] - '0';
+            if ((digit < 0) || (digit > 9))
+                throw new NumberFormatException("For input string: \"" + scanner.field(field) + "\"");
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    @Override
+    public double getDouble(int column) {
+        if (isNull(column))
+            return 0;
+        int field = field(column);
+        byte[] buffer = scanner.buffer();
+        int pos = skipSpaces(buffer, scanner.fieldStart(field), scanner.fieldEnd(field));
+        int end = trimSpaces(buffer, pos, scanner.fieldEnd(field));
+        boolean negative = (pos < end) && (buffer[pos] == '-');
+        if ((pos < end) && ((buffer[pos] == '-') || (buffer[pos] == '+')))
+            pos++;
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; pos < end; pos++) {
+            byte b = buffer[pos];
+            if ((b >= '0') && (b <= '9')) {
+                anyDigit = true;
+                if ((mantissa == 0) && (b == '0')) {
+                    // leading zeros are not significant
+                    if (fraction)
+                        exponent--;
+                    continue;
+                }
+                if (++digits > MAX_EXACT_DIGITS)
+                    return parseDouble(field);
+                mantissa = mantissa * 10 + (b - '0');
+                if (fraction)
+                    exponent--;
+            } else if ((b == '.') && !fraction) {
+                fraction = true;
+            } else if (((b == 'e') || (b == 'E')) && anyDigit) {
+                int exp = parseExponent(buffer, pos + 1, end);
+                if (exp == Integer.MIN_VALUE)
+                    return parseDouble(field);
+                exponent += exp;
+                pos = end;
+                break;
+            } else {
+                return parseDouble(field);
+            }
+        }
+        if (!anyDigit || (exponent < -POWERS_OF_TEN.length + 1) || (exponent > POWERS_OF_TEN.length - 1))
+            return parseDouble(field);
+        double value = (exponent < 0) ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    @Override
+    public String getString(int column) {
+        int field = field(column);
+        if ((field < 0) || scanner.isNull(field))
+            return null;
+        return scanner.field(field);
+    }
+
+    /**
+     * Drop the scanner and the tables, so the cursor holds no reference to the mapped files any more. The
+     * mappings are shared with the Resource and are unmapped once neither refers to them.
+     */
+    @Override
+    public void close() {
+        tables = List.of();
+        table = 0;
+        scanner = null;
+        onRow = false;
+    }
+
+    private int field(int column) {
+        if (!onRow)
+            throw new IllegalStateException("Cursor is not on a row");
+        if ((column < 0) || (column >= columns.length))
+            throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + columns.length
+                    + " columns");
+        int field = columns[column];
+        return (field < scanner.fieldCount()) ? field : -1;
+    }
+
+    private double parseDouble(int field) {
+        return Double.parseDouble(scanner.field(field).trim());
+    }
+
+    // the exponent in buffer[pos, end), or Integer.MIN_VALUE if it is not a small plain integer
+    private static int parseExponent(byte[] buffer, int pos, int end) {
+        boolean negative = (pos < end) && (buffer[pos] == '-');
+        if ((pos < end) && ((buffer[pos] == '-') || (buffer[pos] == '+')))
+            pos++;
+        if ((pos == end) || (end - pos > 3))
+            return Integer.MIN_VALUE;
+        int value = 0;
+        for (; pos < end; pos++) {
+            int digit = buffer[pos] - '0';
+            if ((digit < 0) || (digit > 9))
+                return Integer.MIN_VALUE;
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static int skipSpaces(byte[] buffer, int pos, int end) {
+        while ((pos < end) && (buffer[pos] == ' '))
+            pos++;
+        return pos;
+    }
+
+    private static int trimSpaces(byte[] buffer, int pos, int end) {
+        while ((end > pos) && (buffer[end - 1] == ' '))
+            end--;
+        return end;
+    }
+}
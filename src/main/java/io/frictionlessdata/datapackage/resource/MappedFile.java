@@ -0,0 +1,64 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A local file mapped into memory with {@link FileChannel#map}. Reads go straight to the OS page cache, so
+ * repeated scans of the same file neither copy it through heap buffers nor read it from disk again.
+ *
+ * A single mapping is limited to 2 GB, larger files are mapped in windows of 1 GB. The mappings stay valid
+ * after the file channel is closed and are released by the garbage collector. Reads are absolute and do not
+ * change buffer state, so a MappedFile can be read by several threads at once.
+ */
+final class MappedFile {
+    private static final int WINDOW_BITS = 30;
+    static final long WINDOW_SIZE = 1L << WINDOW_BITS;
+    private static final long WINDOW_MASK = WINDOW_SIZE - 1;
+
+    private final Path path;
+    private final long size;
+    private final MappedByteBuffer[] windows;
+
+    private MappedFile(Path path, long size, MappedByteBuffer[] windows) {
+        this.path = path;
+        this.size = size;
+        this.windows = windows;
+    }
+
+    /**
+     * @param path the file to map
+     * @return the mapped file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static MappedFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + WINDOW_SIZE - 1) >>> WINDOW_BITS)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = (long) i << WINDOW_BITS;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+            }
+            return new MappedFile(path, size, windows);
+        }
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @param position the position in the file, must be below {@link #size()}
+     * @return the byte at `position`
+     */
+    byte get(long position) {
+        return windows[(int) (position >>> WINDOW_BITS)].get((int) (position & WINDOW_MASK));
+    }
+}
@@ -0,0 +1,269 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.Dialect;
+import io.frictionlessdata.tableschema.exception.TableValidationException;
+import io.frictionlessdata.tableschema.field.Field;
+import io.frictionlessdata.tableschema.schema.Schema;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * A local CSV file read through a {@link MappedFile} and a {@link CsvRecordScanner} instead of the tableschema
+ * {@link io.frictionlessdata.tableschema.Table}.
+ *
+ * Rows are returned in the order of the Schema fields, which are matched to the header row of the file by name.
+ * Without a Schema, rows are returned as Strings in the order of the header row. Values in the `missingValues`
+ * of the Schema are cast to null, like by the tableschema Table.
+ */
+final class MappedTable {
+    // target size of the chunks a file is split into for parallel parsing
+    static final long SPLIT_SIZE = 16L * 1024 * 1024;
+
+    private final MappedFile file;
+    // modification time of the file when it was mapped
+    private final FileTime lastModified;
+    private final Schema schema;
+    private final Dialect dialect;
+    private final Charset charset;
+    private final String[] headers;
+    // position of the first record after the header row
+    private final long dataStart;
+    // for each column of the returned rows, the column in the file
+    private final int[] columns;
+    // for each column of the returned rows, the field to cast it, null without a Schema
+    private final Field<?>[] fields;
+    // values cast to null
+    private final Set<String> missingValues;
+    // record boundaries for parallel parsing, computed on first use
+    private long[] boundaries;
+
+    private MappedTable(MappedFile file, FileTime lastModified, Schema schema, Dialect dialect, Charset charset) {
+        this.file = file;
+        this.lastModified = lastModified;
+        this.schema = schema;
+        this.missingValues = Projection.missingValues(schema);
+        this.dialect = (null != dialect) ? dialect : Dialect.DEFAULT;
+        this.charset = charset;
+        CsvRecordScanner scanner = new CsvRecordScanner(file, 0, file.size(), this.dialect, charset);
+        String[] fileHeaders = this.dialect.isHasHeaderRow() ? scanner.next() : null;
+        if (null == fileHeaders)
+            fileHeaders = new String[0];
+        this.dataStart = this.dialect.isHasHeaderRow() ? scanner.position() : 0;
+        if (null != schema) {
+            List<Field<?>> schemaFields = schema.getFields();
+            this.headers = new String[schemaFields.size()];
+            this.columns = new int[schemaFields.size()];
+            this.fields = new Field<?>[schemaFields.size()];
+            for (int i = 0; i < schemaFields.size(); i++) {
+                fields[i] = schemaFields.get(i);
+                headers[i] = fields[i].getName();
+                columns[i] = this.dialect.isHasHeaderRow() ? indexOf(fileHeaders, headers[i]) : i;
+                if (columns[i] < 0) {
+                    throw new TableValidationException("Field '" + headers[i] + "' not found in the headers of "
+                            + file.getPath().getFileName());
+                }
+            }
+        } else {
+            this.headers = fileHeaders;
+            this.columns = new int[fileHeaders.length];
+            this.fields = new Field<?>[fileHeaders.length];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = i;
+            }
+        }
+    }
+
+    /**
+     * @param path the local CSV file
+     * @param schema the Schema of the Resource, or null
+     * @param dialect the CSV dialect of the Resource, or null for the default dialect
+     * @param charset the charset of the file
+     * @return the table
+     * @throws IOException if the file cannot be mapped
+     */
+    static MappedTable open(Path path, Schema schema, Dialect dialect, Charset charset) throws IOException {
+        // taken before mapping, so a change while mapping makes the table stale
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        return new MappedTable(MappedFile.map(path), lastModified, schema, dialect, charset);
+    }
+
+    /**
+     * @return true if the file changed in size or modification time since it was mapped, or cannot be read
+     */
+    boolean isStale() {
+        try {
+            return (Files.size(file.getPath()) != file.size())
+                    || !Files.getLastModifiedTime(file.getPath()).equals(lastModified);
+        } catch (IOException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * @param dialect the CSV dialect of the Resource, or null for the default dialect
+     * @param schema the Schema of the Resource, or null
+     * @param charset the charset of the files
+     * @return true if files of a Resource with `dialect` and `schema` can be read as mapped tables
+     */
+    static boolean supports(Dialect dialect, Schema schema, Charset charset) {
+        Dialect d = (null != dialect) ? dialect : Dialect.DEFAULT;
+        return CsvRecordScanner.supports(d, charset) && ((null != schema) || d.isHasHeaderRow());
+    }
+
+    String[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * @return an iterator over the rows as Strings, in the order of the headers
+     */
+    Iterator<String[]> stringArrayIterator() {
+        return iterator(this::project);
+    }
+
+    /**
+     * @return an iterator over the rows, cast to the types of the Schema fields if there is a Schema
+     */
+    Iterator<Object[]> objectArrayIterator() {
+        return iterator(this::cast);
+    }
+
+    /**
+     * @return an iterator over the rows as Maps of header to value, cast if there is a Schema
+     */
+    Iterator<Map<String, Object>> mappingIterator() {
+        return iterator(record -> toMap(cast(record)));
+    }
+
+    /**
+     * @param converter converts the records of the file, in file column order, to rows
+     * @return an iterator over the converted rows
+     */
+    <T> Iterator<T> iterator(Function<String[], T> converter) {
+        return new RecordIterator<>(scanner(dataStart, file.size()), converter);
+    }
+
+    /**
+     * @param names the fields to pick, each one of the headers
+     * @return a projection of the records of the file to the fields, cast if there is a Schema
+     * @throws TableValidationException if a field is not one of the headers
+     */
+    Projection projection(String[] names) {
+        int[] projected = new int[names.length];
+        Field<?>[] projectedFields = new Field<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            int index = Projection.indexOf(headers, names[i], dialect.isCaseSensitiveHeader());
+            if (index < 0)
+                throw new TableValidationException("Field '" + names[i] + "' not found in the headers of "
+                        + file.getPath().getFileName());
+            projected[i] = columns[index];
+            projectedFields[i] = fields[index];
+        }
+        return new Projection(names.clone(), projected, projectedFields, missingValues);
+    }
+
+    /**
+     * @return a scanner over the records after the header row
+     */
+    CsvRecordScanner dataScanner() {
+        return scanner(dataStart, file.size());
+    }
+
+    /**
+     * @param start position of the first record, must be at a record boundary
+     * @param end position after which no record starts
+     * @return a scanner over the records in the range
+     */
+    CsvRecordScanner scanner(long start, long end) {
+        return new CsvRecordScanner(file, start, end, dialect, charset);
+    }
+
+    /**
+     * Split the data rows at record boundaries into chunks of about {@link #SPLIT_SIZE} bytes. The boundaries are
+     * found once and reused by later splits.
+     *
+     * @return the chunks, in file order
+     */
+    List<ChunkSpliterator.Chunk> split() {
+        long[] b;
+        synchronized (this) {
+            if (null == boundaries)
+                boundaries = scanner(dataStart, file.size()).split(SPLIT_SIZE);
+            b = boundaries;
+        }
+        List<ChunkSpliterator.Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < b.length - 1; i++) {
+            chunks.add(new ChunkSpliterator.Chunk(this, b[i], b[i + 1]));
+        }
+        return chunks;
+    }
+
+    String[] project(String[] record) {
+        String[] row = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = (columns[i] < record.length) ? record[columns[i]] : null;
+        }
+        return row;
+    }
+
+    Object[] cast(String[] record) {
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            String value = (columns[i] < record.length) ? record[columns[i]] : null;
+            if (null == fields[i])
+                row[i] = value;
+            else
+                row[i] = ((null == value) || missingValues.contains(value)) ? null : fields[i].castValue(value);
+        }
+        return row;
+    }
+
+    Map<String, Object> toMap(Object[] row) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < headers.length; i++) {
+            map.put(headers[i], row[i]);
+        }
+        return map;
+    }
+
+    private int indexOf(String[] fileHeaders, String name) {
+        for (int i = 0; i < fileHeaders.length; i++) {
+            String header = (null != fileHeaders[i]) ? fileHeaders[i].trim() : null;
+            if (dialect.isCaseSensitiveHeader() ? name.equals(header) : name.equalsIgnoreCase(header))
+                return i;
+        }
+        return -1;
+    }
+
+    private static final class RecordIterator<T> implements Iterator<T> {
+        private final CsvRecordScanner scanner;
+        private final Function<String[], T> converter;
+        private String[] next;
+
+        RecordIterator(CsvRecordScanner scanner, Function<String[], T> converter) {
+            this.scanner = scanner;
+            this.converter = converter;
+            this.next = scanner.next();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        @Override
+        public T next() {
+            if (null == next)
+                throw new NoSuchElementException();
+            T retVal = converter.apply(next);
+            next = scanner.next();
+            return retVal;
+        }
+    }
+}
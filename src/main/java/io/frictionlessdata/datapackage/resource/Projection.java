@@ -0,0 +1,176 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.tableschema.exception.TableValidationException;
+import io.frictionlessdata.tableschema.field.Field;
+import io.frictionlessdata.tableschema.schema.Schema;
+import io.frictionlessdata.tableschema.util.JsonUtil;
+import tools.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * A subset of the columns of a table, picked by field name from the raw String rows of the table. Only the
+ * picked values are cast, the other columns of a row are never converted or copied. Values in the
+ * `missingValues` of the Schema are cast to null.
+ */
+final class Projection {
+    private static final String JSON_KEY_MISSING_VALUES = "missingValues";
+    private static final Set<String> DEFAULT_MISSING_VALUES = Set.of("");
+
+    private final String[] names;
+    // for each picked field, its column in the raw rows
+    private final int[] columns;
+    // for each picked field, the field to cast it, null to keep the raw String
+    private final Field<?>[] fields;
+    // values cast to null
+    private final Set<String> missingValues;
+
+    Projection(String[] names, int[] columns, Field<?>[] fields, Set<String> missingValues) {
+        this.names = names;
+        this.columns = columns;
+        this.fields = fields;
+        this.missingValues = missingValues;
+    }
+
+    /**
+     * @param names the fields to pick, in the order of the returned rows
+     * @param headers the headers of the raw rows
+     * @param schema the Schema to cast the picked values with, or null to keep them as Strings
+     * @param caseSensitive true if field names must match the headers exactly
+     * @return the projection
+     * @throws TableValidationException if a field is not found in the headers
+     */
+    static Projection of(String[] names, String[] headers, Schema schema, boolean caseSensitive) {
+        int[] columns = new int[names.length];
+        Field<?>[] fields = new Field<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = indexOf(headers, names[i], caseSensitive);
+            if (columns[i] < 0)
+                throw new TableValidationException("Field '" + names[i] + "' not found in the headers");
+            fields[i] = (null != schema) ? schema.getField(names[i]) : null;
+        }
+        return new Projection(names, columns, fields, missingValues(schema));
+    }
+
+    /**
+     * @param schema a Schema, or null
+     * @return the values the Schema declares as `missingValues`, the empty String if it declares none
+     */
+    static Set<String> missingValues(Schema schema) {
+        if (null == schema)
+            return DEFAULT_MISSING_VALUES;
+        JsonNode declared = JsonUtil.getInstance().createNode(schema.asJson()).get(JSON_KEY_MISSING_VALUES);
+        if ((null == declared) || !declared.isArray())
+            return DEFAULT_MISSING_VALUES;
+        Set<String> retVal = new HashSet<>();
+        for (JsonNode value : declared) {
+            if (!value.isNull())
+                retVal.add(value.asString());
+        }
+        return retVal;
+    }
+
+    static String[] toArray(Collection<String> names) {
+        return names.toArray(new String[0]);
+    }
+
+    String[] getNames() {
+        return names.clone();
+    }
+
+    /**
+     * @param row a raw row
+     * @return the picked values, cast if there is a field for them
+     */
+    Object[] cast(String[] row) {
+        Object[] retVal = new Object[columns.length];
+        cast(row, retVal);
+        return retVal;
+    }
+
+    /**
+     * @param row a raw row
+     * @param target the array to write the picked values to, cast if there is a field for them
+     */
+    void cast(String[] row, Object[] target) {
+        for (int i = 0; i < columns.length; i++) {
+            target[i] = cast(row, i);
+        }
+    }
+
+    /**
+     * @param index the index of a picked field
+     * @return the column of the field in the raw rows
+     */
+    int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param row a raw row
+     * @param index the index of a picked field
+     * @return the raw value of the field
+     */
+    String raw(String[] row, int index) {
+        return (columns[index] < row.length) ? row[columns[index]] : null;
+    }
+
+    /**
+     * @param row a raw row
+     * @param index the index of a picked field
+     * @return true if the value of the field is null, or a missing value and there is a field for it, so that
+     * {@link #cast(String[], int)} returns null for it
+     */
+    boolean isMissing(String[] row, int index) {
+        String value = raw(row, index);
+        return (null == value) || ((null != fields[index]) && missingValues.contains(value));
+    }
+
+    /**
+     * @param row a raw row
+     * @param index the index of a picked field
+     * @return the value of the field, cast if there is a field for it, null if it is a missing value
+     */
+    Object cast(String[] row, int index) {
+        String value = raw(row, index);
+        if (null == fields[index])
+            return value;
+        return ((null == value) || missingValues.contains(value)) ? null : fields[index].castValue(value);
+    }
+
+    /**
+     * @param row a raw row
+     * @return the picked values as Strings
+     */
+    String[] project(String[] row) {
+        String[] retVal = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            retVal[i] = raw(row, i);
+        }
+        return retVal;
+    }
+
+    /**
+     * @param values the picked values, as returned by {@link #cast(String[])} or {@link #project(String[])}
+     * @return a Map of field name to value
+     */
+    Map<String, Object> toMap(Object[] values) {
+        Map<String, Object> retVal = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            retVal.put(names[i], values[i]);
+        }
+        return retVal;
+    }
+
+    static int indexOf(String[] headers, String name, boolean caseSensitive) {
+        int retVal = -1;
+        for (int i = 0; (null != headers) && (i < headers.length); i++) {
+            String header = (null != headers[i]) ? headers[i].trim() : null;
+            if (name.equals(header))
+                return i;
+            if ((retVal < 0) && !caseSensitive && name.equalsIgnoreCase(header))
+                retVal = i;
+        }
+        return retVal;
+    }
+}
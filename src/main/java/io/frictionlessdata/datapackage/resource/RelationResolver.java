@@ -0,0 +1,175 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.Package;
+import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyViolation;
+import io.frictionlessdata.datapackage.fk.RelationIndex;
+import io.frictionlessdata.tableschema.exception.ForeignKeyException;
+import io.frictionlessdata.tableschema.field.Field;
+import io.frictionlessdata.tableschema.fk.ForeignKey;
+import io.frictionlessdata.tableschema.schema.Schema;
+
+import java.util.*;
+
+/**
+ * Resolves the foreign keys of a Resource's rows by hash joins against the referenced Resources. The indexes of
+ * the referenced Resources come from the {@link io.frictionlessdata.datapackage.fk.RelationIndexCache} of the
+ * Package, so iterating with relations costs one hash probe per foreign key and row.
+ *
+ * Foreign key fields are replaced by the referenced row, as a Map of field name to value. Rows with a null
+ * value in any key field are left unchanged, and a key missing from the referenced Resource fails the iteration.
+ */
+final class RelationResolver {
+    private final String resourceName;
+    private final Schema schema;
+    private final List<ForeignKey> fks = new ArrayList<>();
+    private final List<RelationIndex> indexes = new ArrayList<>();
+
+    private RelationResolver(String resourceName, Schema schema) {
+        this.resourceName = resourceName;
+        this.schema = schema;
+    }
+
+    /**
+     * @return the resolver for `resource`, null if it has no foreign keys or does not belong to a Package
+     */
+    static RelationResolver of(AbstractResource<?> resource, Package pkg) throws Exception {
+        Schema schema = resource.getSchema();
+        if ((null == pkg) || (null == schema) || (null == schema.getForeignKeys()) || schema.getForeignKeys().isEmpty())
+            return null;
+        RelationResolver resolver = new RelationResolver(resource.getName(), schema);
+        for (ForeignKey fk : schema.getForeignKeys()) {
+            String refResourceName = fk.getReference().getResource();
+            if (null == refResourceName)
+                continue;
+            Resource<?> refResource = refResourceName.isEmpty() ? resource : pkg.getResource(refResourceName);
+            if (null == refResource) {
+                throw new DataPackageValidationException("Foreign key references non-existent referencedResource: "
+                        + refResourceName);
+            }
+            resolver.fks.add(fk);
+            resolver.indexes.add(pkg.getRelationIndexCache().get(refResource, fk.getReference().getFieldNames()));
+        }
+        return resolver.fks.isEmpty() ? null : resolver;
+    }
+
+    Iterator<Map<String, Object>> resolveMaps(Iterator<Map<String, Object>> rows) {
+        return resolving(rows, (row, rowNumber) -> {
+            Map<String, Object> retVal = new LinkedHashMap<>(row);
+            for (int i = 0; i < fks.size(); i++) {
+                List<String> fieldNames = fks.get(i).getFieldNames();
+                List<Object> values = new ArrayList<>(fieldNames.size());
+                for (String fieldName : fieldNames) {
+                    values.add(row.get(fieldName));
+                }
+                Map<String, Object> refRow = lookup(i, values, rowNumber);
+                if (null != refRow) {
+                    fieldNames.forEach(f -> retVal.put(f, refRow));
+                }
+            }
+            return retVal;
+        });
+    }
+
+    Iterator<Object[]> resolveArrays(Iterator<Object[]> rows, boolean extended) {
+        String[] schemaHeaders = schema.getHeaders();
+        return resolving(rows, (row, rowNumber) -> {
+            if (extended) {
+                Object[] retVal = row.clone();
+                retVal[2] = resolveArray((Object[]) row[2], (String[]) row[1], rowNumber);
+                return retVal;
+            }
+            return resolveArray(row, schemaHeaders, rowNumber);
+        });
+    }
+
+    /**
+     * String rows cannot hold the referenced rows, so their keys are cast and checked for existence only.
+     */
+    Iterator<String[]> verifyStrings(Iterator<String[]> rows) {
+        String[] headers = schema.getHeaders();
+        return resolving(rows, (row, rowNumber) -> {
+            for (int i = 0; i < fks.size(); i++) {
+                List<String> fieldNames = fks.get(i).getFieldNames();
+                List<Object> values = new ArrayList<>(fieldNames.size());
+                for (String fieldName : fieldNames) {
+                    int pos = indexOf(headers, fieldName);
+                    String value = (pos < 0 || pos >= row.length) ? null : row[pos];
+                    Field<?> field = schema.getField(fieldName);
+                    values.add((null == value || value.isEmpty() || null == field) ? value : field.castValue(value));
+                }
+                lookup(i, values, rowNumber);
+            }
+            return row;
+        });
+    }
+
+    private Object[] resolveArray(Object[] row, String[] headers, long rowNumber) {
+        Object[] retVal = row.clone();
+        for (int i = 0; i < fks.size(); i++) {
+            List<String> fieldNames = fks.get(i).getFieldNames();
+            int[] positions = new int[fieldNames.size()];
+            List<Object> values = new ArrayList<>(fieldNames.size());
+            for (int j = 0; j < positions.length; j++) {
+                positions[j] = indexOf(headers, fieldNames.get(j));
+                values.add((positions[j] < 0 || positions[j] >= row.length) ? null : row[positions[j]]);
+            }
+            Map<String, Object> refRow = lookup(i, values, rowNumber);
+            if (null != refRow) {
+                for (int pos : positions) {
+                    retVal[pos] = refRow;
+                }
+            }
+        }
+        return retVal;
+    }
+
+    // the referenced row, null if a key value is null
+    private Map<String, Object> lookup(int fkIndex, List<Object> values, long rowNumber) {
+        for (Object value : values) {
+            if (null == value)
+                return null;
+        }
+        Map<String, Object> refRow = indexes.get(fkIndex).get(values);
+        if (null == refRow) {
+            ForeignKey fk = fks.get(fkIndex);
+            String refResourceName = fk.getReference().getResource().isEmpty()
+                    ? resourceName : fk.getReference().getResource();
+            String msg = new ForeignKeyViolation(resourceName, rowNumber, fk.getFieldNames(), values,
+                    refResourceName, fk.getReference().getFieldNames()).getMessage();
+            throw new DataPackageValidationException("Error reading data with relations: " + msg,
+                    new ForeignKeyException(msg));
+        }
+        return refRow;
+    }
+
+    private static int indexOf(String[] headers, String fieldName) {
+        if (null == headers)
+            return -1;
+        for (int i = 0; i < headers.length; i++) {
+            if (fieldName.equals(headers[i]))
+                return i;
+        }
+        return -1;
+    }
+
+    private interface RowFunction<T> {
+        T apply(T row, long rowNumber);
+    }
+
+    private static <T> Iterator<T> resolving(Iterator<T> rows, RowFunction<T> resolve) {
+        return new Iterator<T>() {
+            private long rowNumber = 0;
+
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return resolve.apply(rows.next(), ++rowNumber);
+            }
+        };
+    }
+}
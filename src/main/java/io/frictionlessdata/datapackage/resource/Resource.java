@@ -4,19 +4,24 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.node.ArrayNode;
 import tools.jackson.databind.node.ObjectNode;
 import tools.jackson.databind.node.StringNode;
 import io.frictionlessdata.datapackage.*;
 import io.frictionlessdata.datapackage.Package;
+import io.frictionlessdata.datapackage.columnar.ColumnarTable;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.fk.ForeignKeyIndexCache;
+import io.frictionlessdata.datapackage.fk.ForeignKeyViolationSink;
 import io.frictionlessdata.tableschema.Table;
 import io.frictionlessdata.tableschema.exception.TypeInferringException;
 import io.frictionlessdata.tableschema.iterator.TableIterator;
 import io.frictionlessdata.tableschema.schema.Schema;
 import io.frictionlessdata.tableschema.tabledatasource.TableDataSource;
 import io.frictionlessdata.tableschema.util.JsonUtil;
+import org.apache.commons.collections4.IteratorUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
@@ -29,6 +34,11 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.frictionlessdata.datapackage.JSONBase.JSON_KEY_DATA;
 import static io.frictionlessdata.datapackage.Validator.isValidUrl;
@@ -241,6 +251,55 @@ public interface Resource<T> extends BaseInterface {
      */
     void writeDialect(Path parentFilePath) throws IOException;
 
+    /**
+     * Load the tables of this Resource on `executor`, like {@link #getTables()}, without blocking the calling
+     * thread. Later reads of the Resource use the loaded tables.
+     *
+     * @param executor the executor to load the tables on
+     * @return a future that completes with the tables, or exceptionally if reading them fails
+     */
+    default CompletableFuture<List<Table>> readAsync(Executor executor) {
+        return supplyAsync(this::getTables, executor);
+    }
+
+    /**
+     * Load the tables of this Resource on the {@link ForkJoinPool#commonPool()}, see
+     * {@link #readAsync(Executor)}.
+     *
+     * @return a future that completes with the tables, or exceptionally if reading them fails
+     */
+    default CompletableFuture<List<Table>> readAsync() {
+        return readAsync(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Write all the data in this Resource into files inside `outputDir` on `executor`, like
+     * {@link #writeData(Path)}, without blocking the calling thread.
+     *
+     * @param outputDir the directory to write to
+     * @param executor the executor to write on
+     * @return a future that completes when the data is written, or exceptionally if writing fails
+     */
+    default CompletableFuture<Void> writeAsync(Path outputDir, Executor executor) {
+        return supplyAsync(() -> {
+            writeData(outputDir);
+            return null;
+        }, executor);
+    }
+
+    // run `task` on `executor`, completing the future exceptionally with the exception the task throws
+    private static <R> CompletableFuture<R> supplyAsync(Callable<R> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
     /**
      * Returns an Iterator that returns rows as object-arrays. Values in each column
      * are parsed and converted ("cast") to Java objects based on the Field definitions of the Schema.
@@ -252,6 +311,12 @@ public interface Resource<T> extends BaseInterface {
     /**
      * Returns an Iterator that returns rows as object-arrays. Values in each column
      *    are parsed and converted ("cast") to Java objects based on the Field definitions of the Schema.
+     *
+     * With `relations`, the values of foreign key fields are replaced by the referenced row as a Map. If the
+     * Resource belongs to a Package, a key missing from the referenced Resource makes `next()` throw a
+     * {@link io.frictionlessdata.datapackage.exceptions.DataPackageValidationException} while iterating.
+     * @param extended true to return the row number and headers along with each row
+     * @param relations true to resolve foreign keys to the referenced rows
      * @return Iterator returning table rows as Object Arrays
      * @throws Exception if parsing the data fails
      */
@@ -295,6 +360,277 @@ public interface Resource<T> extends BaseInterface {
      */
     public Iterator<String[]> stringArrayIterator(boolean relations) throws Exception;
 
+    /**
+     * Returns an Iterator that returns only the given fields of each row, as object-arrays in the order of
+     * `fields`. Only the values of these fields are cast based on the Field definitions of the Schema, the
+     * other columns are neither cast nor copied, so scans of wide tables only pay for the columns they use.
+     * It does not follow relations.
+     *
+     * The default implementation picks the fields from the rows of {@link #mappingIterator(boolean)}.
+     *
+     * @param fields the names of the fields to return
+     * @return Iterator returning the projected table rows as Object Arrays
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default Iterator<Object[]> objectArrayIterator(String... fields) throws Exception {
+        return IteratorUtils.transformedIterator(mappingIterator(false), row -> {
+            Object[] values = new Object[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                values[i] = row.get(fields[i]);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Returns an Iterator that returns only the given fields of each row as a Map&lt;key,val&gt; where key is
+     * the header name, and val is the data, in the iteration order of `fields`. Only the values of these fields
+     * are cast, like {@link #objectArrayIterator(String...)}. It does not follow relations.
+     *
+     * @param fields the names of the fields to return
+     * @return Iterator that returns the projected rows as Maps.
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default Iterator<Map<String, Object>> mappingIterator(Set<String> fields) throws Exception {
+        return IteratorUtils.transformedIterator(mappingIterator(false), row -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            fields.forEach(f -> values.put(f, row.get(f)));
+            return values;
+        });
+    }
+
+    /**
+     * Returns an Iterator that returns rows as instances of `beanType`, populated from the given fields only.
+     * The values of these fields are converted to the property types of `beanType`, the other columns are
+     * never converted. It does not follow relations.
+     *
+     * @param beanType the Bean class the rows are converted to
+     * @param fields the names of the fields to populate the beans from, matching bean property names
+     * @return Iterator that returns the projected rows as beans.
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default <C> Iterator<C> beanIterator(Class<C> beanType, Set<String> fields) throws Exception {
+        ObjectMapper mapper = JsonUtil.getInstance().getMapper();
+        return IteratorUtils.transformedIterator(mappingIterator(fields), row -> mapper.convertValue(row, beanType));
+    }
+
+    /**
+     * Returns an Iterator that returns the rows matching `filter` as object-arrays. The filter is evaluated on
+     * the fields it refers to before the rest of the row is cast, see {@link RowFilter}. It does not follow
+     * relations.
+     *
+     * The default implementation filters the rows of {@link #mappingIterator(boolean)}.
+     *
+     * @param filter the conditions rows have to match
+     * @return Iterator returning the matching table rows as Object Arrays
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default Iterator<Object[]> objectArrayIterator(RowFilter filter) throws Exception {
+        return IteratorUtils.transformedIterator(mappingIterator(filter), row -> row.values().toArray());
+    }
+
+    /**
+     * Returns an Iterator that returns the rows matching `filter` as a Map&lt;key,val&gt; where key is the header
+     * name, and val is the data. The filter is evaluated like in {@link #objectArrayIterator(RowFilter)}.
+     *
+     * @param filter the conditions rows have to match
+     * @return Iterator that returns the matching rows as Maps.
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default Iterator<Map<String, Object>> mappingIterator(RowFilter filter) throws Exception {
+        return IteratorUtils.filteredIterator(mappingIterator(false), filter::matches);
+    }
+
+    /**
+     * Returns an Iterator over batches of rows as object-arrays, in the order of the headers of
+     * {@link #objectArrayIterator(String...)} for all Schema fields. The iterator refills a single
+     * {@link RowBatch} and reuses its row arrays, so bulk consumers process `batchSize` rows per call without a
+     * row array allocated per row. It does not follow relations.
+     *
+     * @param batchSize the maximum number of rows per batch
+     * @return Iterator over batches of table rows, each valid until the next batch is requested
+     * @throws Exception if parsing the data fails
+     */
+    default Iterator<RowBatch> batchIterator(int batchSize) throws Exception {
+        Schema schema = getSchema();
+        String[] names = (null != schema) ? schema.getHeaders() : getHeaders();
+        Iterator<Consumer<Object[]>> rows = IteratorUtils.transformedIterator(objectArrayIterator(names),
+                row -> target -> System.arraycopy(row, 0, target, 0, Math.min(row.length, target.length)));
+        return new RowBatchIterator(rows, names, batchSize);
+    }
+
+    /**
+     * Returns a {@link ResourceCursor} over the rows of a Resource, with columns in the order of the Schema fields.
+     * Implementations read values from the raw text of the data instead of building a row per iteration, local
+     * CSV files are parsed straight from their bytes. It does not follow relations.
+     *
+     * The default implementation reads the rows of {@link #objectArrayIterator(String...)}.
+     *
+     * @return a cursor before the first row
+     * @throws Exception if opening the data fails
+     */
+    default ResourceCursor cursor() throws Exception {
+        Schema schema = getSchema();
+        String[] names = (null != schema) ? schema.getHeaders() : getHeaders();
+        return new IteratorCursor(objectArrayIterator(names), names, getDialect());
+    }
+
+    /**
+     * Read all data from a Resource into a {@link ColumnarTable}. Values are stored per column in primitive arrays
+     * or dictionary-encoded, based on the field types of the Schema, which takes a fraction of the heap of
+     * {@link #getMappedData(boolean)}. Resources without a Schema are stored as Strings in the order of their
+     * headers. The method ignores relations.
+     *
+     * Values of `number` fields are stored as `double`s, so a {@link java.math.BigDecimal} with more significant
+     * digits than a `double` holds is rounded to the nearest `double`, and its scale is lost. `integer` values
+     * are read back as `long`s.
+     *
+     * @return the data of the Resource, column by column
+     * @throws Exception if parsing the data fails
+     */
+    default ColumnarTable toColumnar() throws Exception {
+        Schema schema = getSchema();
+        String[] names = (null != schema) ? schema.getHeaders() : getHeaders();
+        return ColumnarTable.from(names, schema, objectArrayIterator(names));
+    }
+
+    /**
+     * Read the first rows of a Resource, as Maps like {@link #getMappedData(boolean)}. Reading stops after
+     * `n` rows, so previews of large Resources do not read the whole data. It does not follow relations.
+     *
+     * @param n the maximum number of rows to return
+     * @return the first `n` rows, or all rows if there are fewer
+     * @throws Exception if parsing the data fails
+     */
+    default List<Map<String, Object>> head(int n) throws Exception {
+        return slice(0, n);
+    }
+
+    /**
+     * Read a range of rows of a Resource, as Maps like {@link #getMappedData(boolean)}. Reading stops after
+     * the last row of the range. Implementations do not cast the skipped rows. It does not follow relations.
+     *
+     * @param offset the number of rows to skip
+     * @param limit the maximum number of rows to return
+     * @return the rows of the range
+     * @throws Exception if parsing the data fails
+     */
+    default List<Map<String, Object>> slice(long offset, int limit) throws Exception {
+        return RowSampling.slice(lazyRows(mappingIterator(false)), offset, limit);
+    }
+
+    /**
+     * Read a uniform random sample of `count` rows of a Resource, in the order they appear in the Resource.
+     * All rows are read, implementations only cast the sampled ones. It does not follow relations.
+     *
+     * @param count the number of rows to return
+     * @param seed the seed of the random generator, the same seed returns the same rows
+     * @return the sampled rows, or all rows if there are fewer than `count`
+     * @throws Exception if parsing the data fails
+     */
+    default List<Map<String, Object>> sample(int count, long seed) throws Exception {
+        return RowSampling.sample(lazyRows(mappingIterator(false)), count, seed);
+    }
+
+    /**
+     * Read a random sample of the rows of a Resource, each row being picked with probability `fraction`, in
+     * the order they appear in the Resource. All rows are read, implementations only cast the sampled ones.
+     * It does not follow relations.
+     *
+     * @param fraction the probability of each row to be picked, between 0 and 1
+     * @param seed the seed of the random generator, the same seed returns the same rows
+     * @return the sampled rows
+     * @throws Exception if parsing the data fails
+     */
+    default List<Map<String, Object>> sample(double fraction, long seed) throws Exception {
+        return RowSampling.sample(lazyRows(mappingIterator(false)), fraction, seed);
+    }
+
+    private static <E> Iterator<Supplier<E>> lazyRows(Iterator<E> rows) {
+        return IteratorUtils.transformedIterator(rows, row -> () -> row);
+    }
+
+    /**
+     * Returns an Iterator that returns only the given fields of the rows matching `filter`, combining
+     * {@link #mappingIterator(RowFilter)} and {@link #mappingIterator(Set)}. Fields referenced by the filter
+     * do not need to be among the returned fields.
+     *
+     * @param filter the conditions rows have to match
+     * @param fields the names of the fields to return
+     * @return Iterator that returns the projected matching rows as Maps.
+     * @throws Exception if parsing the data fails or a field is not found
+     */
+    default Iterator<Map<String, Object>> mappingIterator(RowFilter filter, Set<String> fields) throws Exception {
+        return IteratorUtils.transformedIterator(mappingIterator(filter), row -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            fields.forEach(f -> values.put(f, row.get(f)));
+            return values;
+        });
+    }
+
+    /**
+     * Returns a sequential Stream of rows as object-arrays, like {@link #objectArrayIterator(boolean, boolean)}.
+     * Implementations split the stream across the tables or paths of the Resource and the chunks of local files,
+     * so `objectArrayStream(false).parallel()` reads them concurrently. Closing the stream closes the
+     * underlying files; use it in a try-with-resources block if it may not be consumed completely.
+     *
+     * The default implementation streams the rows of {@link #objectArrayIterator(boolean, boolean)}
+     * sequentially.
+     *
+     * @param relations Whether references to other data sources get resolved
+     * @return Stream of table rows as Object Arrays
+     * @throws Exception if reading the data fails
+     */
+    default Stream<Object[]> objectArrayStream(boolean relations) throws Exception {
+        return iteratorStream(objectArrayIterator(false, relations));
+    }
+
+    /**
+     * Returns a sequential Stream of rows as a Map&lt;key,val&gt; where key is the header name, and val is the data,
+     * like {@link #mappingIterator(boolean)}. Splitting and closing work like {@link #objectArrayStream(boolean)}.
+     *
+     * @param relations Whether references to other data sources get resolved
+     * @return Stream of table rows as Maps
+     * @throws Exception if reading the data fails
+     */
+    default Stream<Map<String, Object>> mappingStream(boolean relations) throws Exception {
+        return iteratorStream(mappingIterator(relations));
+    }
+
+    /**
+     * Returns a sequential Stream of rows as instances of `beanType`, like
+     * {@link #beanIterator(Class, boolean)}. Splitting and closing work like {@link #objectArrayStream(boolean)}.
+     *
+     * @param beanType the Bean class the rows are converted to
+     * @param relations follow relations to other data source
+     * @return Stream of table rows as Beans
+     * @throws Exception if reading the data fails
+     */
+    default <C> Stream<C> beanStream(Class<C> beanType, boolean relations) throws Exception {
+        return iteratorStream(beanIterator(beanType, relations));
+    }
+
+    /**
+     * Wrap an iterator in a sequential Stream that closes the iterator, if it is {@link AutoCloseable}, when the
+     * Stream is closed.
+     *
+     * @param iterator the rows
+     * @return Stream of the rows
+     */
+    private static <E> Stream<E> iteratorStream(Iterator<E> iterator) {
+        Stream<E> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED),
+                false);
+        if (!(iterator instanceof AutoCloseable))
+            return stream;
+        return stream.onClose(() -> {
+            try {
+                ((AutoCloseable) iterator).close();
+            } catch (Exception ex) {
+                throw new DataPackageException("Failed to close iterator", ex);
+            }
+        });
+    }
+
 
     String[] getHeaders() throws Exception;
 
@@ -362,8 +698,45 @@ public interface Resource<T> extends BaseInterface {
 
     String getSerializationFormat();
 
+    /**
+     * Check the data of this Resource against the foreign keys defined in its Schema. Rows of this Resource
+     * are streamed and probed against an index holding only the referenced key values, so neither
+     * the referencing nor the referenced Resource is loaded into memory as a whole.
+     *
+     * @param pkg the Package holding the referenced Resources
+     * @throws Exception if a foreign key is violated or reading the data fails
+     */
     void checkRelations(Package pkg) throws Exception;
 
+    /**
+     * Check the data of this Resource against the foreign keys defined in its Schema, reporting every violating
+     * row to `sink` instead of failing on the first one. The default implementation cannot report violations
+     * individually and throws on the first one.
+     *
+     * @param pkg the Package holding the referenced Resources
+     * @param sink receives the violations, null to throw on the first violation like {@link #checkRelations(Package)}
+     * @throws Exception if a foreign key is invalid or reading the data fails
+     */
+    default void checkRelations(Package pkg, ForeignKeyViolationSink sink) throws Exception {
+        checkRelations(pkg);
+    }
+
+    /**
+     * Check the data of this Resource against its foreign keys like
+     * {@link #checkRelations(Package, ForeignKeyViolationSink)}, taking the indexes of the referenced Resources
+     * from `cache`, so they are built once for all Resources checked with the same cache. The default
+     * implementation does not use the cache.
+     *
+     * @param pkg the Package holding the referenced Resources
+     * @param sink receives the violations, null to throw on the first violation
+     * @param cache the cache to share indexes through, null to build them for this Resource only
+     * @throws Exception if a foreign key is invalid or reading the data fails
+     */
+    default void checkRelations(Package pkg, ForeignKeyViolationSink sink, ForeignKeyIndexCache cache)
+            throws Exception {
+        checkRelations(pkg, sink);
+    }
+
     /**
      * Recreate a Resource object from a JSON descriptor, a base path to resolve relative file paths against
      * and a flag that tells us whether we are reading from inside a ZIP archive.
@@ -598,4 +971,16 @@ public interface Resource<T> extends BaseInterface {
     }
 
     void validate(Package pkg) throws DataPackageValidationException;
+
+    /**
+     * Validate this Resource like {@link #validate(Package)}, taking the indexes for checking its foreign keys
+     * from `cache`. The default implementation does not use the cache.
+     *
+     * @param pkg the Package holding this Resource
+     * @param cache the cache to share foreign key indexes through, null to build them for this Resource only
+     * @throws DataPackageValidationException if validation fails
+     */
+    default void validate(Package pkg, ForeignKeyIndexCache cache) throws DataPackageValidationException {
+        validate(pkg);
+    }
 }
\ No newline at end of file
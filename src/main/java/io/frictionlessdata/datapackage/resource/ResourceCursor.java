@@ -0,0 +1,64 @@
+package io.frictionlessdata.datapackage.resource;
+
+/**
+ * Forward-only cursor over the rows of a Resource, returned by {@link Resource#cursor()}. The cursor points at
+ * one row at a time and reads its values on demand, without a row array or boxed values per row, so full scans
+ * that only aggregate values run with very little garbage.
+ *
+ * Columns are indexed in the order of {@link #getHeaders()}. Values are read from the text of the data: the
+ * primitive getters parse plain integer and decimal numbers and do not apply Schema formats or constraints.
+ * A value is null if it is empty or matches the null sequence of the dialect.
+ *
+ * <pre>
+ *     try (ResourceCursor cursor = resource.cursor()) {
+ *         while (cursor.next()) {
+ *             if (!cursor.isNull(2))
+ *                 total += cursor.getLong(2);
+ *         }
+ *     }
+ * </pre>
+ */
+public interface ResourceCursor extends AutoCloseable {
+
+    /**
+     * @return the names of the columns
+     */
+    String[] getHeaders();
+
+    /**
+     * Move to the next row. The values of the previous row are no longer accessible.
+     *
+     * @return false if there are no more rows
+     */
+    boolean next();
+
+    /**
+     * @param column the index of the column
+     * @return true if the value of the current row is null
+     */
+    boolean isNull(int column);
+
+    /**
+     * @param column the index of the column
+     * @return the value of the current row as a `long`, 0 if it is null
+     * @throws NumberFormatException if the value is not an integer
+     */
+    long getLong(int column);
+
+    /**
+     * @param column the index of the column
+     * @return the value of the current row as a `double`, 0 if it is null
+     * @throws NumberFormatException if the value is not a number
+     */
+    double getDouble(int column);
+
+    /**
+     * @param column the index of the column
+     * @return the value of the current row as a String, or null
+     */
+    String getString(int column);
+
+    @Override
+    default void close() {
+    }
+}
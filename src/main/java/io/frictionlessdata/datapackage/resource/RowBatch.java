@@ -0,0 +1,87 @@
+package io.frictionlessdata.datapackage.resource;
+
+/**
+ * A batch of rows returned by {@link Resource#batchIterator(int)}. The iterator refills the same batch on every
+ * call, reusing its row arrays, so the rows of a batch are only valid until the next batch is requested.
+ * Consumers that keep rows have to copy them.
+ */
+public final class RowBatch {
+    private final String[] headers;
+    private final Object[][] rows;
+    private int size;
+
+    RowBatch(String[] headers, int capacity) {
+        this.headers = headers;
+        this.rows = new Object[capacity][headers.length];
+    }
+
+    /**
+     * @return the names of the columns of the rows
+     */
+    public String[] getHeaders() {
+        return headers.clone();
+    }
+
+    /**
+     * @return the number of rows in this batch
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the maximum number of rows in a batch
+     */
+    public int capacity() {
+        return rows.length;
+    }
+
+    /**
+     * @param row the index of the row in this batch
+     * @return the values of the row, in the order of the headers
+     */
+    public Object[] getRow(int row) {
+        checkIndex(row);
+        return rows[row];
+    }
+
+    /**
+     * @param row the index of the row in this batch
+     * @param column the index of the column
+     * @return the value
+     */
+    public Object getValue(int row, int column) {
+        checkIndex(row);
+        return rows[row][column];
+    }
+
+    /**
+     * @return the row arrays backing this batch, of which the first {@link #size()} hold rows of this batch
+     */
+    public Object[][] getRows() {
+        return rows;
+    }
+
+    /**
+     * Start refilling this batch.
+     */
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the array of the next row to fill
+     */
+    Object[] nextRow() {
+        return rows[size++];
+    }
+
+    boolean isFull() {
+        return size == rows.length;
+    }
+
+    private void checkIndex(int row) {
+        if ((row < 0) || (row >= size))
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for batch of " + size + " rows");
+    }
+}
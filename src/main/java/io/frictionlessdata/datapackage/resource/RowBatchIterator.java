@@ -0,0 +1,42 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Iterator that fills one {@link RowBatch} over and over. Rows are passed as writers that cast a row into the
+ * array they are given, so no row array is allocated while iterating.
+ */
+final class RowBatchIterator implements Iterator<RowBatch> {
+    private final Iterator<? extends Consumer<Object[]>> rows;
+    private final RowBatch batch;
+
+    /**
+     * @param rows writers of the rows, each one filling a row array in the order of `headers`
+     * @param headers the names of the columns
+     * @param batchSize the maximum number of rows in a batch
+     */
+    RowBatchIterator(Iterator<? extends Consumer<Object[]>> rows, String[] headers, int batchSize) {
+        if (batchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.rows = rows;
+        this.batch = new RowBatch(headers, batchSize);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rows.hasNext();
+    }
+
+    @Override
+    public RowBatch next() {
+        if (!rows.hasNext())
+            throw new NoSuchElementException();
+        batch.clear();
+        while (!batch.isFull() && rows.hasNext()) {
+            rows.next().accept(batch.nextRow());
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,210 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * A filter on the rows of a Resource, made of conditions on single fields that all have to match. Resource
+ * iterators taking a RowFilter evaluate it on the values of the referenced fields only, before the rest of the
+ * row is cast or copied, so rows that do not match cost almost nothing.
+ *
+ * Conditions are evaluated in the order they were added, and evaluation of a row stops at the first condition
+ * that does not match. Only the field of an evaluated condition is cast, null checks do not cast at all, but
+ * treat the `missingValues` of the Schema as null like casting does.
+ * Numbers are compared by value, regardless of their Java type.
+ *
+ * <pre>
+ *     RowFilter filter = RowFilter.where("city").isEqualTo("london")
+ *         .and("population").isBetween(1000000, null);
+ *     Iterator&lt;Map&lt;String, Object&gt;&gt; iter = resource.mappingIterator(filter);
+ * </pre>
+ */
+public final class RowFilter {
+    private final List<Term> terms;
+
+    private RowFilter(List<Term> terms) {
+        this.terms = terms;
+    }
+
+    /**
+     * @param field the name of a field
+     * @return the condition on `field` the filter starts with
+     */
+    public static Condition where(String field) {
+        return new Condition(Collections.emptyList(), field);
+    }
+
+    /**
+     * @param field the name of a field
+     * @return a condition on `field` that rows have to match in addition to this filter
+     */
+    public Condition and(String field) {
+        return new Condition(terms, field);
+    }
+
+    /**
+     * @param row a row as returned by {@link Resource#mappingIterator(boolean)}
+     * @return true if the row matches all conditions of this filter
+     */
+    public boolean matches(Map<String, Object> row) {
+        for (Term term : terms) {
+            if (!term.predicate.test(row.get(term.field)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the names of the fields the conditions refer to, without duplicates, in order of the conditions
+     */
+    String[] getFieldNames() {
+        Set<String> names = new LinkedHashSet<>();
+        terms.forEach(t -> names.add(t.field));
+        return names.toArray(new String[0]);
+    }
+
+    /**
+     * @param projection the projection of raw rows to the fields returned by {@link #getFieldNames()}
+     * @return a predicate on raw rows
+     */
+    Predicate<String[]> bind(Projection projection) {
+        List<String> names = Arrays.asList(getFieldNames());
+        int[] indexes = new int[terms.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = names.indexOf(terms.get(i).field);
+        }
+        return row -> {
+            for (int i = 0; i < indexes.length; i++) {
+                Term term = terms.get(i);
+                Object value = term.cast
+                        ? projection.cast(row, indexes[i])
+                        : (projection.isMissing(row, indexes[i]) ? null : projection.raw(row, indexes[i]));
+                if (!term.predicate.test(value))
+                    return false;
+            }
+            return true;
+        };
+    }
+
+    /**
+     * A condition on a single field, completed by one of its methods to a {@link RowFilter}.
+     */
+    public static final class Condition {
+        private final List<Term> terms;
+        private final String field;
+
+        private Condition(List<Term> terms, String field) {
+            if (null == field)
+                throw new IllegalArgumentException("Field name must not be null");
+            this.terms = terms;
+            this.field = field;
+        }
+
+        /**
+         * @param value the value to compare to
+         * @return a filter that matches rows where the field equals `value`
+         */
+        public RowFilter isEqualTo(Object value) {
+            return add(true, v -> isEqual(v, value));
+        }
+
+        /**
+         * @param values the values to compare to
+         * @return a filter that matches rows where the field equals one of `values`
+         */
+        public RowFilter isIn(Collection<?> values) {
+            List<Object> copy = new ArrayList<>(values);
+            Set<Object> set = new HashSet<>(values);
+            boolean numeric = copy.stream().anyMatch(v -> v instanceof Number);
+            if (!numeric)
+                return add(true, set::contains);
+            return add(true, v -> (v instanceof Number)
+                    ? copy.stream().anyMatch(c -> isEqual(v, c))
+                    : set.contains(v));
+        }
+
+        /**
+         * @param min the lowest matching value, or null for no lower bound
+         * @param max the highest matching value, or null for no upper bound
+         * @return a filter that matches rows where the field is between `min` and `max`, inclusive
+         */
+        public RowFilter isBetween(Object min, Object max) {
+            return add(true, v -> (null != v)
+                    && ((null == min) || (compare(v, min) >= 0))
+                    && ((null == max) || (compare(v, max) <= 0)));
+        }
+
+        /**
+         * @param value the value to compare to
+         * @return a filter that matches rows where the field is greater than `value`
+         */
+        public RowFilter isGreaterThan(Object value) {
+            return add(true, v -> (null != v) && (compare(v, value) > 0));
+        }
+
+        /**
+         * @param value the value to compare to
+         * @return a filter that matches rows where the field is less than `value`
+         */
+        public RowFilter isLessThan(Object value) {
+            return add(true, v -> (null != v) && (compare(v, value) < 0));
+        }
+
+        /**
+         * @return a filter that matches rows where the field is null, empty or one of the `missingValues` of
+         * the Schema
+         */
+        public RowFilter isNull() {
+            return add(false, RowFilter::isEmpty);
+        }
+
+        /**
+         * @return a filter that matches rows where the field is neither null, empty nor one of the
+         * `missingValues` of the Schema
+         */
+        public RowFilter isNotNull() {
+            return add(false, v -> !isEmpty(v));
+        }
+
+        private RowFilter add(boolean cast, Predicate<Object> predicate) {
+            List<Term> retVal = new ArrayList<>(terms);
+            retVal.add(new Term(field, cast, predicate));
+            return new RowFilter(Collections.unmodifiableList(retVal));
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        return (null == value) || "".equals(value);
+    }
+
+    private static boolean isEqual(Object value, Object other) {
+        if ((value instanceof Number) && (other instanceof Number))
+            return toBigDecimal(value).compareTo(toBigDecimal(other)) == 0;
+        return Objects.equals(value, other);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compare(Object value, Object other) {
+        if ((value instanceof Number) && (other instanceof Number))
+            return toBigDecimal(value).compareTo(toBigDecimal(other));
+        return ((Comparable<Object>) value).compareTo(other);
+    }
+
+    private static BigDecimal toBigDecimal(Object number) {
+        return (number instanceof BigDecimal) ? (BigDecimal) number : new BigDecimal(number.toString());
+    }
+
+    private static final class Term {
+        private final String field;
+        // false if the predicate is evaluated on the raw value
+        private final boolean cast;
+        private final Predicate<Object> predicate;
+
+        private Term(String field, boolean cast, Predicate<Object> predicate) {
+            this.field = field;
+            this.cast = cast;
+            this.predicate = predicate;
+        }
+    }
+}
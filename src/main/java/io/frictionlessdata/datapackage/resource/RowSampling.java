@@ -0,0 +1,100 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Picking rows for previews: leading rows, a range of rows or a random sample. Rows are passed as suppliers
+ * that cast the row when called, so skipped rows are never cast. Reading stops as soon as no more rows can be
+ * picked.
+ *
+ * Samples are drawn uniformly from all rows, with reservoir sampling for a fixed count. Seeking to random byte
+ * offsets would be faster on large files, but it favours long records and cannot find record boundaries
+ * inside quoted fields spanning several lines, so samples read the rows, without casting them.
+ */
+final class RowSampling {
+
+    private RowSampling() {
+    }
+
+    /**
+     * @param rows the rows to pick from
+     * @param offset the number of rows to skip
+     * @param limit the maximum number of rows to return
+     * @return the rows after the first `offset` rows, at most `limit` of them
+     */
+    static <T> List<T> slice(Iterator<? extends Supplier<T>> rows, long offset, int limit) {
+        if (offset < 0)
+            throw new IllegalArgumentException("Offset must not be negative: " + offset);
+        if (limit < 0)
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        List<T> retVal = new ArrayList<>();
+        for (long i = 0; (i < offset) && rows.hasNext(); i++) {
+            rows.next();
+        }
+        while ((retVal.size() < limit) && rows.hasNext()) {
+            retVal.add(rows.next().get());
+        }
+        return retVal;
+    }
+
+    /**
+     * @param rows the rows to pick from
+     * @param count the number of rows to return, all rows if there are fewer
+     * @param seed the seed of the random generator, the same seed picks the same rows
+     * @return a uniform random sample of `count` rows, in the order of `rows`
+     */
+    static <T> List<T> sample(Iterator<? extends Supplier<T>> rows, int count, long seed) {
+        if (count < 0)
+            throw new IllegalArgumentException("Sample count must not be negative: " + count);
+        Random random = new Random(seed);
+        List<Supplier<T>> reservoir = new ArrayList<>();
+        long[] positions = new long[count];
+        long seen = 0;
+        while (rows.hasNext()) {
+            Supplier<T> row = rows.next();
+            if (seen < count) {
+                positions[reservoir.size()] = seen;
+                reservoir.add(row);
+            } else {
+                long j = random.nextLong(seen + 1);
+                if (j < count) {
+                    positions[(int) j] = seen;
+                    reservoir.set((int) j, row);
+                }
+            }
+            seen++;
+        }
+        Integer[] order = new Integer[reservoir.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> positions[i]));
+        List<T> retVal = new ArrayList<>(order.length);
+        for (Integer i : order) {
+            retVal.add(reservoir.get(i).get());
+        }
+        return retVal;
+    }
+
+    /**
+     * @param rows the rows to pick from
+     * @param fraction the probability of each row to be picked, between 0 and 1
+     * @param seed the seed of the random generator, the same seed picks the same rows
+     * @return the picked rows, in the order of `rows`
+     */
+    static <T> List<T> sample(Iterator<? extends Supplier<T>> rows, double fraction, long seed) {
+        if (!(fraction >= 0) || (fraction > 1))
+            throw new IllegalArgumentException("Sample fraction must be between 0 and 1: " + fraction);
+        List<T> retVal = new ArrayList<>();
+        if (fraction == 0)
+            return retVal;
+        Random random = new Random(seed);
+        while (rows.hasNext()) {
+            Supplier<T> row = rows.next();
+            if (random.nextDouble() < fraction)
+                retVal.add(row.get());
+        }
+        return retVal;
+    }
+}
@@ -0,0 +1,242 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+
+import java.io.*;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Read-only, random-access List of the rows of a Resource, backed by a temporary file. Rows are collected as
+ * raw String rows and only decoded into list elements when read, so the file holds the compact text of the
+ * rows instead of cast values.
+ *
+ * The file is written in pages of {@value #PAGE_ROWS} rows, and the offset of each page is kept in memory.
+ * Reading a row reads and decodes its whole page at once, and the last {@value #CACHED_PAGES} decoded pages
+ * are kept, so reading the list in order reads the file once. The file is deleted when the list is garbage
+ * collected, or when the JVM exits.
+ *
+ * Each row is stored as its number of values, followed by each value as its length in UTF-8 bytes plus one,
+ * 0 for null, and the bytes. Numbers are written as variable-length integers.
+ */
+final class SpillingList<E> extends AbstractList<E> implements RandomAccess {
+    static final int PAGE_ROWS = 1024;
+    static final int CACHED_PAGES = 8;
+    // estimated heap size of a String[] row and of each String in it, besides its characters
+    private static final int ROW_OVERHEAD = 16;
+    private static final int VALUE_OVERHEAD = 44;
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final SpillFile file;
+    private final long[] pageOffsets;
+    private final int size;
+    private final Function<List<String[]>, List<E>> decoder;
+    // decoded rows by page, in access order
+    private final LinkedHashMap<Integer, List<E>> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    private SpillingList(SpillFile file, long[] pageOffsets, int size, Function<List<String[]>, List<E>> decoder) {
+        this.file = file;
+        this.pageOffsets = pageOffsets;
+        this.size = size;
+        this.decoder = decoder;
+        CLEANER.register(this, file);
+    }
+
+    /**
+     * Collect `rows` into a List. If the estimated heap size of the raw rows stays within `maxBytesInMemory`,
+     * the buffered rows are decoded a page at a time into an ArrayList, which is returned. Otherwise, all rows
+     * are written to a temporary file, and a SpillingList over that file is returned.
+     *
+     * @param rows the raw rows
+     * @param decoder converts a page of raw rows into list elements, one per row
+     * @param maxBytesInMemory the estimated heap size of raw rows to hold in memory before spilling to disk
+     * @param directory the directory to create the temporary file in, null for the default temp directory
+     * @return the rows
+     * @throws IOException if writing the temporary file fails
+     */
+    static <E> List<E> collect(Iterator<String[]> rows, Function<List<String[]>, List<E>> decoder,
+                               long maxBytesInMemory, Path directory) throws IOException {
+        List<String[]> buffer = new ArrayList<>();
+        long bytes = 0;
+        while ((bytes <= maxBytesInMemory) && rows.hasNext()) {
+            String[] row = rows.next();
+            buffer.add(row);
+            bytes += estimateBytes(row);
+        }
+        if (!rows.hasNext() && (bytes <= maxBytesInMemory)) {
+            List<E> retVal = new ArrayList<>(buffer.size());
+            for (int from = 0; from < buffer.size(); from += PAGE_ROWS) {
+                retVal.addAll(decoder.apply(buffer.subList(from, Math.min(buffer.size(), from + PAGE_ROWS))));
+            }
+            return retVal;
+        }
+        Path path = (null != directory)
+                ? Files.createTempFile(directory, "datapackage-rows-", ".bin")
+                : Files.createTempFile("datapackage-rows-", ".bin");
+        path.toFile().deleteOnExit();
+        long[] pageOffsets = new long[16];
+        int size = 0;
+        try (CountingOutputStream counter = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)));
+             DataOutputStream out = new DataOutputStream(counter)) {
+            Iterator<String[]> iter = buffer.iterator();
+            while (iter.hasNext() || rows.hasNext()) {
+                String[] row = iter.hasNext() ? iter.next() : rows.next();
+                if (size % PAGE_ROWS == 0) {
+                    int page = size / PAGE_ROWS;
+                    if (page + 1 >= pageOffsets.length)
+                        pageOffsets = Arrays.copyOf(pageOffsets, pageOffsets.length * 2);
+                    pageOffsets[page] = counter.count;
+                }
+                writeRow(out, row);
+                size++;
+            }
+            buffer.clear();
+            pageOffsets[(size + PAGE_ROWS - 1) / PAGE_ROWS] = counter.count;
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+        SpillFile file = new SpillFile(path, FileChannel.open(path, StandardOpenOption.READ));
+        return new SpillingList<>(file, pageOffsets, size, decoder);
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        synchronized (pages) {
+            int page = index / PAGE_ROWS;
+            List<E> rows = pages.get(page);
+            if (null == rows) {
+                try {
+                    rows = decoder.apply(readPage(page));
+                } catch (IOException ex) {
+                    throw new DataPackageException("Reading spilled rows from disk failed", ex);
+                }
+                pages.put(page, rows);
+                if (pages.size() > CACHED_PAGES)
+                    pages.remove(pages.keySet().iterator().next());
+            }
+            return rows.get(index % PAGE_ROWS);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private List<String[]> readPage(int page) throws IOException {
+        long from = pageOffsets[page];
+        ByteBuffer bytes = ByteBuffer.allocate((int) (pageOffsets[page + 1] - from));
+        while (bytes.hasRemaining()) {
+            if (file.channel.read(bytes, from + bytes.position()) < 0)
+                throw new EOFException("Spilled rows file is truncated: " + file.path);
+        }
+        bytes.flip();
+        String[][] retVal = new String[Math.min(PAGE_ROWS, size - page * PAGE_ROWS)][];
+        for (int i = 0; i < retVal.length; i++) {
+            retVal[i] = readRow(bytes);
+        }
+        return Arrays.asList(retVal);
+    }
+
+    private static void writeRow(DataOutputStream out, String[] row) throws IOException {
+        writeVarInt(out, row.length);
+        for (String value : row) {
+            if (null == value) {
+                writeVarInt(out, 0);
+            } else {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, utf8.length + 1);
+                out.write(utf8);
+            }
+        }
+    }
+
+    private static String[] readRow(ByteBuffer in) {
+        String[] retVal = new String[readVarInt(in)];
+        for (int i = 0; i < retVal.length; i++) {
+            int len = readVarInt(in) - 1;
+            if (len >= 0) {
+                retVal[i] = new String(in.array(), in.position(), len, StandardCharsets.UTF_8);
+                in.position(in.position() + len);
+            }
+        }
+        return retVal;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int retVal = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            retVal |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return retVal;
+        }
+    }
+
+    static long estimateBytes(String[] row) {
+        long retVal = ROW_OVERHEAD;
+        for (String value : row) {
+            retVal += 4 + ((null != value) ? VALUE_OVERHEAD + value.length() : 0);
+        }
+        return retVal;
+    }
+
+    // closes and deletes the file once the list is unreachable, must not refer to the list
+    private static final class SpillFile implements Runnable {
+        private final Path path;
+        private final FileChannel channel;
+
+        private SpillFile(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        @Override
+        public void run() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException ignored) {
+                // deleted on exit
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.frictionlessdata.datapackage.resource;
+
+import java.util.*;
+
+/**
+ * Package-level cache of the tables loaded by Resources. Without a cache, a Resource holds its tables from the
+ * first read until it is dropped. With a cache, the Package keeps the tables of at most `maxEntries` Resources
+ * and up to a budget of their estimated size, and releases the tables of the least recently read Resources
+ * beyond that. A Resource whose tables were released loads them again when it is read the next time.
+ *
+ * The size of the tables of a Resource is estimated from the size of its raw data, eg. its files. Tables
+ * larger than the budget are not cached, but still returned to the reader that loaded them.
+ */
+public class TableCache {
+    private final int maxEntries;
+    private final long maxBytes;
+    // estimated bytes by Resource, in access order
+    private final LinkedHashMap<AbstractResource<?>, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * @param maxEntries the maximum number of Resources whose tables are kept
+     * @param maxBytes memory budget for the kept tables in bytes
+     */
+    public TableCache(int maxEntries, long maxBytes) {
+        if (maxEntries < 0)
+            throw new IllegalArgumentException("Maximum number of cached Resources must not be negative: "
+                    + maxEntries);
+        if (maxBytes < 0)
+            throw new IllegalArgumentException("Table cache budget must not be negative: " + maxBytes);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Record a read of a Resource whose tables were loaded.
+     *
+     * @param resource the Resource
+     */
+    synchronized void hit(AbstractResource<?> resource) {
+        hitCount++;
+        entries.get(resource);
+    }
+
+    /**
+     * Record that a Resource loaded its tables, and pick the Resources that have to release their tables to
+     * keep the cache within its budget. The caller releases them, outside of the lock of the cache.
+     *
+     * @param resource the Resource
+     * @param estimatedBytes the estimated size of its tables
+     * @return the Resources to release the tables of, possibly including `resource`
+     */
+    synchronized List<AbstractResource<?>> loaded(AbstractResource<?> resource, long estimatedBytes) {
+        missCount++;
+        List<AbstractResource<?>> retVal = new ArrayList<>();
+        Long previous = entries.remove(resource);
+        if (null != previous)
+            bytes -= previous;
+        if ((maxEntries == 0) || (estimatedBytes > maxBytes)) {
+            retVal.add(resource);
+            return retVal;
+        }
+        entries.put(resource, estimatedBytes);
+        bytes += estimatedBytes;
+        Iterator<Map.Entry<AbstractResource<?>, Long>> iter = entries.entrySet().iterator();
+        while (((bytes > maxBytes) || (entries.size() > maxEntries)) && iter.hasNext()) {
+            Map.Entry<AbstractResource<?>, Long> evicted = iter.next();
+            if (evicted.getKey() != resource) {
+                bytes -= evicted.getValue();
+                iter.remove();
+                evictionCount++;
+                retVal.add(evicted.getKey());
+            }
+        }
+        return retVal;
+    }
+
+    /**
+     * Forget a Resource, eg. because it was removed from the Package. Its tables are not released.
+     *
+     * @param resource the Resource
+     */
+    synchronized void remove(AbstractResource<?> resource) {
+        Long previous = entries.remove(resource);
+        if (null != previous)
+            bytes -= previous;
+    }
+
+    /**
+     * @return the number of reads of Resources whose tables were loaded
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of reads of Resources that had to load their tables
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return the number of Resources that released their tables to keep the cache within its budget
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the number of Resources whose tables are kept
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the estimated size of all kept tables in bytes
+     */
+    public synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+}
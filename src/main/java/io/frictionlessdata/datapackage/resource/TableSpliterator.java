@@ -0,0 +1,140 @@
+package io.frictionlessdata.datapackage.resource;
+
+import io.frictionlessdata.datapackage.exceptions.DataPackageException;
+import io.frictionlessdata.tableschema.Table;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator over the rows of the {@link Table}s of a Resource, one Table per path or inline data source.
+ * Splitting hands off half of the remaining Tables, so a parallel stream reads the files of a multi-path
+ * Resource concurrently. Rows of a Table are read by one thread, in order.
+ *
+ * The number of rows of a Table is only known once it was read to the end. Row counts are kept per Table in an
+ * array shared with the Resource, so once all remaining Tables were read before, eg. by an earlier stream, the
+ * spliterator reports its exact size and is {@link #SIZED} and {@link #SUBSIZED}.
+ *
+ * Iterators are opened when a Table is reached. Iterators that hold resources, i.e. that are
+ * {@link AutoCloseable}, are tracked and closed by {@link #close()}, which the streams of a Resource register
+ * as their close handler.
+ */
+final class TableSpliterator<T> implements Spliterator<T> {
+    private final List<Table> tables;
+    private final Function<Table, Iterator<? extends T>> opener;
+    // shared by all splits of a stream, so closing the stream closes the iterators of every split
+    private final List<AutoCloseable> opened;
+    // the number of rows of each Table, -1 if it is not known yet
+    private final AtomicLongArray rowCounts;
+    private int from;
+    private final int to;
+    private Iterator<? extends T> current;
+    // the number of rows read from the current Table
+    private long consumed;
+
+    /**
+     * @param tables the Tables to read
+     * @param opener opens the iterator over the rows of a Table
+     * @param rowCounts the number of rows of each of `tables`, -1 if not known, updated when a Table was read
+     *                  to the end
+     */
+    TableSpliterator(List<Table> tables, Function<Table, Iterator<? extends T>> opener, AtomicLongArray rowCounts) {
+        this(tables, 0, tables.size(), opener, new ArrayList<>(), rowCounts);
+    }
+
+    private TableSpliterator(List<Table> tables, int from, int to, Function<Table, Iterator<? extends T>> opener,
+                             List<AutoCloseable> opened, AtomicLongArray rowCounts) {
+        this.tables = tables;
+        this.from = from;
+        this.to = to;
+        this.opener = opener;
+        this.opened = opened;
+        this.rowCounts = rowCounts;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (true) {
+            if (null == current) {
+                if (from >= to)
+                    return false;
+                current = opener.apply(tables.get(from++));
+                consumed = 0;
+                if (current instanceof AutoCloseable) {
+                    synchronized (opened) {
+                        opened.add((AutoCloseable) current);
+                    }
+                }
+            }
+            if (current.hasNext()) {
+                action.accept(current.next());
+                consumed++;
+                return true;
+            }
+            rowCounts.set(from - 1, consumed);
+            current = null;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if ((null != current) || (to - from < 2))
+            return null;
+        int mid = (from + to) >>> 1;
+        Spliterator<T> prefix = new TableSpliterator<>(tables, from, mid, opener, opened, rowCounts);
+        from = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long retVal = 0;
+        if (null != current) {
+            long count = rowCounts.get(from - 1);
+            if (count < 0)
+                return Long.MAX_VALUE;
+            retVal += count - consumed;
+        }
+        for (int i = from; i < to; i++) {
+            long count = rowCounts.get(i);
+            if (count < 0)
+                return Long.MAX_VALUE;
+            retVal += count;
+        }
+        return retVal;
+    }
+
+    @Override
+    public int characteristics() {
+        return (estimateSize() < Long.MAX_VALUE) ? (ORDERED | SIZED | SUBSIZED) : ORDERED;
+    }
+
+    /**
+     * Close the iterators opened by this spliterator and its splits.
+     */
+    void close() {
+        List<AutoCloseable> toClose;
+        synchronized (opened) {
+            toClose = new ArrayList<>(opened);
+            opened.clear();
+        }
+        DataPackageException failure = null;
+        for (AutoCloseable c : toClose) {
+            try {
+                c.close();
+            } catch (Exception ex) {
+                if (null == failure)
+                    failure = new DataPackageException("Failed to close table iterator", ex);
+                else
+                    failure.addSuppressed(ex);
+            }
+        }
+        if (null != failure)
+            throw failure;
+    }
+}
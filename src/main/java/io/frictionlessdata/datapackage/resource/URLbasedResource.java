@@ -37,14 +37,10 @@ public class URLbasedResource extends AbstractReferencebasedResource<URL> {
 
     @Override
     List<Table> readData () throws Exception{
-        List<Table> tables = new ArrayList<>();
         // If the path of a data file has been set.
         if (super.paths != null){
-            for (URL url : paths) {
-                Table table = createTable(url);
-                tables.add(table);
-            }
+            return loadTables(paths, this::createTable);
         }
-        return tables;
+        return new ArrayList<>();
     }
 }
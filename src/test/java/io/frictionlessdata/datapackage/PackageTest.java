@@ -33,6 +33,9 @@ import java.nio.file.attribute.FileAttribute;
 import java.security.MessageDigest;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static io.frictionlessdata.datapackage.Profile.*;
 import static io.frictionlessdata.datapackage.TestUtil.getBasePath;
@@ -176,6 +179,145 @@ public class PackageTest {
         // Check if base path was set properly;
         Assertions.assertEquals(basePath, dp.getBasePath());
     }
+
+    @Test
+    @DisplayName("Test the table cache releases the tables of least recently read Resources")
+    public void testTableCache() throws Exception {
+        Path sourceFileAbsPath = Paths.get(PackageTest.class.getResource("/fixtures/multi_data_datapackage.json").toURI());
+        Package dp = new Package(sourceFileAbsPath, true);
+        dp.setTableCacheBudget(1, Long.MAX_VALUE);
+        TableCache cache = dp.getTableCache();
+
+        Resource first = dp.getResource("first-resource");
+        Resource third = dp.getResource("third-resource");
+        List<Object> expected = first.getData(false, false, true, false);
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertTrue(cache.getEstimatedBytes() > 0);
+
+        long hits = cache.getHitCount();
+        first.getHeaders();
+        Assertions.assertEquals(hits + 1, cache.getHitCount());
+
+        third.getData(false, false, true, false);
+        Assertions.assertEquals(2, cache.getMissCount());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertEquals(1, cache.size());
+
+        // the first Resource loads its tables again
+        List<Object> actual = first.getData(false, false, true, false);
+        Assertions.assertEquals(3, cache.getMissCount());
+        Assertions.assertEquals(2, cache.getEvictionCount());
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertArrayEquals((Object[]) expected.get(i), (Object[]) actual.get(i));
+        }
+
+        // tables larger than the budget are not kept
+        dp.setTableCacheBudget(10, 1);
+        third.getData(false, false, true, false);
+        Assertions.assertEquals(0, dp.getTableCache().size());
+        Assertions.assertEquals(0, dp.getTableCache().getEstimatedBytes());
+    }
+
+    @Test
+    @DisplayName("Test reading all data above the spill threshold returns the same rows")
+    public void testDataSpillThreshold() throws Exception {
+        Path sourceFileAbsPath = Paths.get(PackageTest.class.getResource("/fixtures/multi_data_datapackage.json").toURI());
+        Package dp = new Package(sourceFileAbsPath, true);
+        Resource resource = dp.getResource("third-resource");
+        List<Map<String, Object>> expectedMaps = resource.getMappedData(false);
+        List<String[]> expectedRows = resource.getData(false);
+
+        dp.setDataSpillThreshold(1);
+        dp.setDataSpillDirectory(Files.createTempDirectory("datapackage-spill"));
+        List<Map<String, Object>> maps = resource.getMappedData(false);
+        List<String[]> rows = resource.getData(false);
+        Assertions.assertEquals(expectedMaps, maps);
+        Assertions.assertEquals(expectedRows.size(), rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Assertions.assertArrayEquals(expectedRows.get(i), rows.get(i));
+        }
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> rows.add(new String[0]));
+
+        // below the threshold, data is read into memory
+        dp.setDataSpillThreshold(Long.MAX_VALUE);
+        Assertions.assertEquals(expectedMaps, resource.getMappedData(false));
+    }
+
+    @Test
+    @DisplayName("Test reading beans with a data spill threshold, spilled and in memory")
+    public void testDataSpillThresholdBeans() throws Exception {
+        Package dp = new Package(new File(getBasePath().toFile(), "datapackages/bean-iterator/datapackage.json").toPath(), true);
+        Resource resource = dp.getResource("employee-data");
+        List<String> expected = new ArrayList<>();
+        for (Object bean : resource.getData(EmployeeBean.class)) {
+            expected.add(bean.toString());
+        }
+
+        dp.setDataSpillThreshold(1);
+        dp.setDataSpillDirectory(Files.createTempDirectory("datapackage-spill"));
+        List<EmployeeBean> spilled = resource.getData(EmployeeBean.class);
+        Assertions.assertEquals(expected.size(), spilled.size());
+        for (int i = 0; i < spilled.size(); i++) {
+            Assertions.assertEquals(expected.get(i), spilled.get(i).toString());
+        }
+
+        dp.setDataSpillThreshold(Long.MAX_VALUE);
+        List<EmployeeBean> inMemory = resource.getData(EmployeeBean.class);
+        Assertions.assertInstanceOf(ArrayList.class, inMemory);
+        Assertions.assertEquals("Frank McKrank", inMemory.get(1).getName());
+        Assertions.assertEquals("PT15M", inMemory.get(1).getContractLength().toString());
+        for (int i = 0; i < inMemory.size(); i++) {
+            Assertions.assertEquals(expected.get(i), inMemory.get(i).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Test loading a Package asynchronously")
+    public void testLoadAsync() throws Exception {
+        Path resourcePath = TestUtil.getResourcePath("/fixtures/datapackages/employees/datapackage.json");
+        Package expected = new Package(resourcePath, true);
+        // a single thread, loading must not wait for tasks queued behind it
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Package dp = Package.loadAsync(resourcePath, true, executor).get();
+            Assertions.assertEquals(expected.getResources().size(), dp.getResources().size());
+            Resource resource = dp.getResource("employee-data");
+            List<Object> rows = resource.getData(false, false, true, false);
+            List<Object> expectedRows = expected.getResource("employee-data").getData(false, false, true, false);
+            Assertions.assertEquals(expectedRows.size(), rows.size());
+            Assertions.assertEquals(resource.getTables(), resource.readAsync(executor).get());
+
+            ExecutionException ex = assertThrows(ExecutionException.class,
+                    () -> Package.loadAsync(new File("/this/path/does/not/exist").toPath(), true, executor).get());
+            Assertions.assertInstanceOf(DataPackageFileOrUrlNotFoundException.class, ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test loading a Package asynchronously records data read failures if validation is lenient")
+    public void testLoadAsyncLenientDataReadFailure() throws Exception {
+        Path tempDirPath = Files.createTempDirectory("datapackage-");
+        Files.writeString(tempDirPath.resolve("datapackage.json"), "{\"name\": \"broken-data\", \"resources\": "
+                + "[{\"name\": \"broken\", \"path\": \"data.json\", \"format\": \"json\", "
+                + "\"profile\": \"tabular-data-resource\", "
+                + "\"schema\": {\"fields\": [{\"name\": \"id\", \"type\": \"integer\"}]}}]}");
+        Files.writeString(tempDirPath.resolve("data.json"), "[{\"id\": ");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Package dp = Package.loadAsync(tempDirPath.resolve("datapackage.json"), false, executor).get();
+            Assertions.assertFalse(dp.isValid());
+            Assertions.assertTrue(dp.getErrors().stream()
+                    .anyMatch(e -> e.getMessage().contains("Resource 'broken'")));
+
+            assertThrows(ExecutionException.class,
+                    () -> Package.loadAsync(tempDirPath.resolve("datapackage.json"), true, executor).get());
+        } finally {
+            executor.shutdown();
+        }
+    }
     
     
     @Test
@@ -407,6 +549,26 @@ public class PackageTest {
         Assertions.assertEquals(t, s);
     }
 
+    @Test
+    @DisplayName("Test reading a ZIP based datapackage before and after closing it")
+    public void testClosePackageFromZip() throws Exception{
+        String pathName = "/fixtures/zip/non-tabular.zip";
+        Path resourcePath = TestUtil.getResourcePath(pathName);
+        byte[] testData = TestUtil.getResourceContent("/fixtures/files/frictionless-color-full-logo.svg");
+        String t = new String (testData).replaceAll("[\n\r]+", "\n");
+
+        Package dp;
+        try (Package pkg = new Package(resourcePath, true)) {
+            dp = pkg;
+            byte[] rawData = (byte[])pkg.getResource("logo-svg").getRawData();
+            Assertions.assertEquals(t, new String (rawData).replaceAll("[\n\r]+", "\n"));
+        }
+        // the archive is reopened when needed after the Package was closed
+        byte[] rawData = (byte[])dp.getResource("logo-svg").getRawData();
+        Assertions.assertEquals(t, new String (rawData).replaceAll("[\n\r]+", "\n"));
+        dp.close();
+    }
+
 
     @Test
     @DisplayName("Test getting resource data from a non-tabular datapackage, URL based")
@@ -3,14 +3,22 @@ package io.frictionlessdata.datapackage.fk;
 import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.TestUtil;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.datapackage.resource.JSONDataResource;
 import io.frictionlessdata.datapackage.resource.Resource;
 import io.frictionlessdata.tableschema.exception.ForeignKeyException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -39,6 +47,259 @@ public class ForeignKeyTest {
         Assertions.assertEquals("Foreign key validation failed: [city] -> [name]: 'Munich' not found in resource 'cities'.", cause.getMessage());
     }
 
+    @Test
+    @DisplayName("Test that keys missing from the referenced resource are detected through the hash index")
+    void testForeignKeyIndexLookup() throws Exception{
+        Path resourcePath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_invalid.json");
+        Package pkg = new Package(resourcePath, true);
+        Resource teams = pkg.getResource("teams");
+        PackageForeignKey fk = new PackageForeignKey(teams.getSchema().getForeignKeys().get(0), teams, pkg);
+        try (ForeignKeyIndex index = ForeignKeyIndex.build(fk)) {
+            Assertions.assertTrue(index.contains(List.of("London")));
+            Assertions.assertTrue(index.contains(List.of("Madrid")));
+            Assertions.assertFalse(index.contains(List.of("Munich")));
+            Assertions.assertArrayEquals(new boolean[]{true, false, true},
+                    index.containsAll(List.of(List.of("London"), List.of("Munich"), List.of("Madrid"))));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that the referenced resource is streamed instead of read through getData()")
+    void testForeignKeysStreamReferencedResource() throws Exception{
+        Path resourcePath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_valid.json");
+        Package pkg = new Package(resourcePath, true);
+        pkg.removeResource("cities");
+        pkg.addResource(new JSONDataResource("cities",
+                "[[\"name\", \"country\"], [\"Munich\", \"Germany\"], [\"London\", \"England\"], " +
+                        "[\"Madrid\", \"Spain\"]]") {
+            @Override
+            public List<String[]> getData(boolean relations) {
+                throw new AssertionError("referenced resource must not be read through getData()");
+            }
+
+            @Override
+            public List<Map<String, Object>> getMappedData(boolean relations) {
+                throw new AssertionError("referenced resource must not be read through getMappedData()");
+            }
+
+            @Override
+            public List<Object> getData(boolean keyed, boolean extended, boolean cast, boolean relations) {
+                throw new AssertionError("referenced resource must not be read through getData()");
+            }
+        });
+        pkg.getResource("teams").checkRelations(pkg);
+    }
+
+    @Test
+    @DisplayName("Test that all foreign key violations are reported to a sink")
+    void testForeignKeyViolationReport() throws Exception{
+        Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_valid.json");
+        Package validPkg = new Package(validPath, true);
+        Assertions.assertTrue(validPkg.checkRelations().isValid());
+
+        Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_invalid.json");
+        Package invalidPkg = new Package(invalidPath, true);
+        ForeignKeyValidationReport report = invalidPkg.checkRelations();
+        Assertions.assertFalse(report.isValid());
+        Assertions.assertEquals(1, report.getViolationCount());
+        ForeignKeyViolation violation = report.getSamples().values().iterator().next().get(0);
+        Assertions.assertEquals("teams", violation.getResource());
+        Assertions.assertEquals(3, violation.getRowNumber());
+        Assertions.assertEquals(List.of("Munich"), violation.getValues());
+        Assertions.assertEquals("cities", violation.getReferencedResource());
+        Assertions.assertEquals("Foreign key validation failed: [city] -> [name]: 'Munich' not found in resource 'cities'.",
+                violation.getMessage());
+
+        ForeignKeyValidationReport noSamples = new ForeignKeyValidationReport(0);
+        invalidPkg.getResource("teams").checkRelations(invalidPkg, noSamples);
+        Assertions.assertEquals(1, noSamples.getViolationCounts().get(violation.getForeignKey()));
+        Assertions.assertTrue(noSamples.getSamples().get(violation.getForeignKey()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test that multi-column foreign keys are validated as a whole tuple")
+    void testCompositeForeignKeys() throws Exception{
+        Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_composite_valid.json");
+        Package validPkg = new Package(validPath, true);
+        validPkg.getResource("teams").checkRelations(validPkg);
+
+        Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_composite_invalid.json");
+        Package invalidPkg = new Package(invalidPath, true);
+        Resource teams = invalidPkg.getResource("teams");
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                () -> teams.checkRelations(invalidPkg));
+        Assertions.assertInstanceOf(ForeignKeyException.class, ex.getCause());
+        Assertions.assertEquals("Foreign key validation failed: [city, country] -> [name, country]: " +
+                "'[London, Spain]' not found in resource 'cities'.", ex.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test that self-referencing foreign keys are validated across all paths of a Resource")
+    void testSelfReferencingForeignKeysMultiPath(@TempDir Path tempDir) throws Exception{
+        String descriptor = "{\"name\": \"categories\", \"resources\": [" +
+                "{\"name\": \"categories\", \"path\": [\"part1.csv\", \"part2.csv\"], \"format\": \"csv\", " +
+                "\"schema\": {\"fields\": [{\"name\": \"id\", \"type\": \"integer\"}, " +
+                "{\"name\": \"parent\", \"type\": \"integer\"}], " +
+                "\"foreignKeys\": [{\"fields\": \"parent\", \"reference\": {\"resource\": \"\", \"fields\": \"id\"}}]}}]}";
+        Path descriptorFile = tempDir.resolve(Package.DATAPACKAGE_FILENAME);
+        Files.writeString(descriptorFile, descriptor);
+        // the parents of the rows in part1.csv are in part2.csv, and vice versa
+        Files.writeString(tempDir.resolve("part1.csv"), "id,parent\n1,\n2,3\n");
+        Files.writeString(tempDir.resolve("part2.csv"), "id,parent\n3,1\n4,2\n");
+
+        Package pkg = new Package(descriptorFile, true);
+        pkg.getResource("categories").checkRelations(pkg);
+
+        Files.writeString(tempDir.resolve("part2.csv"), "id,parent\n3,1\n4,5\n");
+        Package invalidPkg = new Package(descriptorFile, true);
+        Resource categories = invalidPkg.getResource("categories");
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                () -> categories.checkRelations(invalidPkg));
+        Assertions.assertEquals("Foreign key validation failed: [parent] -> [id]: '5' not found in resource 'categories'.",
+                ex.getCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Test that relations are resolved through the relation cache of the Package")
+    void testResolveRelations() throws Exception{
+        Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_composite_valid.json");
+        Package validPkg = new Package(validPath, true);
+        Resource teams = validPkg.getResource("teams");
+        List<Map<String, Object>> rows = teams.getMappedData(true);
+        Assertions.assertEquals(3, rows.size());
+        Map<String, Object> city = (Map<String, Object>) rows.get(0).get("city");
+        Assertions.assertEquals("London", city.get("name"));
+        Assertions.assertEquals("England", city.get("country"));
+        Assertions.assertTrue(validPkg.getRelationIndexCache().getEstimatedBytes() > 0);
+
+        // the cached index is reused by later iterators
+        long cached = validPkg.getRelationIndexCache().getEstimatedBytes();
+        Iterator<Object[]> iter = teams.objectArrayIterator(false, true);
+        Object[] row = iter.next();
+        Assertions.assertEquals("London", ((Map<String, Object>) row[2]).get("name"));
+        Assertions.assertEquals(cached, validPkg.getRelationIndexCache().getEstimatedBytes());
+
+        Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_composite_invalid.json");
+        Package invalidPkg = new Package(invalidPath, true);
+        Iterator<Map<String, Object>> invalidIter = invalidPkg.getResource("teams").mappingIterator(true);
+        invalidIter.next();
+        invalidIter.next();
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class, invalidIter::next);
+        Assertions.assertInstanceOf(ForeignKeyException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Test that foreign keys are validated correctly with off-heap key indexes")
+    void testForeignKeysOffHeap() throws Exception{
+        Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_valid.json");
+        Package validPkg = new Package(validPath, true);
+        validPkg.setForeignKeyIndexOffHeap(true);
+        validPkg.getResource("teams").checkRelations(validPkg);
+
+        Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_invalid.json");
+        Package invalidPkg = new Package(invalidPath, true);
+        invalidPkg.setForeignKeyIndexOffHeap(true);
+        Resource teams = invalidPkg.getResource("teams");
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                () -> teams.checkRelations(invalidPkg));
+        Assertions.assertInstanceOf(ForeignKeyException.class, ex.getCause());
+    }
+
+    @Test
+    @DisplayName("Test that foreign keys are validated correctly with key indexes spilled to disk")
+    void testForeignKeysSpilled(@TempDir Path tempDir) throws Exception{
+        Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_valid.json");
+        Package validPkg = new Package(validPath, true);
+        validPkg.setForeignKeyIndexSpillThreshold(1);
+        validPkg.setForeignKeyIndexSpillDirectory(tempDir);
+        validPkg.getResource("teams").checkRelations(validPkg);
+
+        Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_invalid.json");
+        Package invalidPkg = new Package(invalidPath, true);
+        invalidPkg.setForeignKeyIndexSpillThreshold(1);
+        invalidPkg.setForeignKeyIndexSpillDirectory(tempDir);
+        Resource teams = invalidPkg.getResource("teams");
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                () -> teams.checkRelations(invalidPkg));
+        Assertions.assertEquals("Foreign key validation failed: [city] -> [name]: 'Munich' not found in resource 'cities'.",
+                ex.getCause().getMessage());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that persisted foreign key indexes are reused and rebuilt when the referenced data changes")
+    void testForeignKeysPersistedIndex(@TempDir Path tempDir) throws Exception{
+        String descriptor = "{\"name\": \"foreign-keys\", \"resources\": [" +
+                "{\"name\": \"teams\", \"data\": [[\"id\", \"name\", \"city\"], [\"1\", \"Arsenal\", \"London\"], " +
+                "[\"2\", \"Real\", \"Madrid\"]], \"schema\": {\"fields\": [{\"name\": \"id\", \"type\": \"integer\"}, " +
+                "{\"name\": \"name\", \"type\": \"string\"}, {\"name\": \"city\", \"type\": \"string\"}], " +
+                "\"foreignKeys\": [{\"fields\": \"city\", \"reference\": {\"resource\": \"cities\", \"fields\": \"name\"}}]}}, " +
+                "{\"name\": \"cities\", \"path\": \"cities.csv\", \"format\": \"csv\"}]}";
+        Path descriptorFile = tempDir.resolve(Package.DATAPACKAGE_FILENAME);
+        Files.writeString(descriptorFile, descriptor);
+        Path citiesFile = tempDir.resolve("cities.csv");
+        Files.writeString(citiesFile, "name,country\nLondon,England\nMadrid,Spain\n");
+        Path indexDir = tempDir.resolve(Package.FOREIGN_KEY_INDEX_DIRECTORY);
+
+        Package pkg = new Package(descriptorFile, true);
+        pkg.setForeignKeyIndexPersistent(true);
+        pkg.getResource("teams").checkRelations(pkg);
+        List<Path> sidecars;
+        try (Stream<Path> files = Files.list(indexDir)) {
+            sidecars = files.sorted().toList();
+        }
+        Assertions.assertEquals(2, sidecars.size());
+
+        Package reloaded = new Package(descriptorFile, true);
+        reloaded.setForeignKeyIndexPersistent(true);
+        reloaded.getResource("teams").checkRelations(reloaded);
+        try (Stream<Path> files = Files.list(indexDir)) {
+            Assertions.assertEquals(sidecars, files.sorted().toList());
+        }
+
+        Files.writeString(citiesFile, "name,country\nLondon,England\n");
+        Package changed = new Package(descriptorFile, true);
+        changed.setForeignKeyIndexPersistent(true);
+        Resource teams = changed.getResource("teams");
+        DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                () -> teams.checkRelations(changed));
+        Assertions.assertEquals("Foreign key validation failed: [city] -> [name]: 'Madrid' not found in resource 'cities'.",
+                ex.getCause().getMessage());
+        try (Stream<Path> files = Files.list(indexDir)) {
+            List<Path> rebuilt = files.sorted().toList();
+            Assertions.assertEquals(2, rebuilt.size());
+            Assertions.assertNotEquals(sidecars, rebuilt);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that foreign keys are validated correctly when validating resources in parallel")
+    void testForeignKeysParallel() throws Exception{
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Path validPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_valid.json");
+            Package validPkg = new Package(validPath, true);
+            validPkg.setValidationExecutor(executor);
+            for (Resource r : validPkg.getResources()) {
+                r.getTables();
+            }
+            Assertions.assertTrue(validPkg.checkRelations().isValid());
+
+            Path invalidPath = TestUtil.getResourcePath("/fixtures/datapackages/foreign_keys_invalid.json");
+            Package invalidPkg = new Package(invalidPath, true);
+            invalidPkg.setValidationExecutor(executor);
+            Resource teams = invalidPkg.getResource("teams");
+            DataPackageValidationException ex = assertThrows(DataPackageValidationException.class,
+                    () -> teams.checkRelations(invalidPkg));
+            Assertions.assertEquals("Foreign key validation failed: [city] -> [name]: 'Munich' not found in resource 'cities'.",
+                    ex.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     @DisplayName("Test checkRelations on valid resources in different-valid-data-formats datapackage")
     void testCheckRelationsOnAllResources() throws Exception {
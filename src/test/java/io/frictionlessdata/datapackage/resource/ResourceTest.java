@@ -6,13 +6,19 @@ import io.frictionlessdata.datapackage.Dialect;
 import io.frictionlessdata.datapackage.Package;
 import io.frictionlessdata.datapackage.PackageTest;
 import io.frictionlessdata.datapackage.Profile;
+import io.frictionlessdata.datapackage.beans.EmployeeBean;
+import io.frictionlessdata.datapackage.columnar.ColumnarTable;
+import io.frictionlessdata.datapackage.columnar.DictionaryColumn;
+import io.frictionlessdata.datapackage.columnar.LongColumn;
 import io.frictionlessdata.datapackage.exceptions.DataPackageException;
 import io.frictionlessdata.datapackage.exceptions.DataPackageValidationException;
+import io.frictionlessdata.tableschema.exception.TableValidationException;
 import io.frictionlessdata.tableschema.schema.Schema;
 import io.frictionlessdata.tableschema.util.JsonUtil;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.math.BigInteger;
@@ -22,8 +28,13 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
 import java.time.Year;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static io.frictionlessdata.datapackage.Profile.*;
 import static io.frictionlessdata.datapackage.TestUtil.getTestDataDirectory;
@@ -150,6 +161,78 @@ public class ResourceTest {
         }
     }
     
+    @Test
+    @DisplayName("Test that tables of a multi-path Resource loaded in parallel keep the path order")
+    public void testIterateDataFromMultipartFilePathParallel() throws Exception{
+        String[] paths = new String[]{
+                "data/cities.csv",
+                "data/cities2.csv",
+                "data/cities3.csv"};
+        List<File> files = new ArrayList<>();
+        for (String file : paths) {
+            files.add(new File (file));
+        }
+        FilebasedResource sequential = new FilebasedResource("coordinates", files, getBasePath());
+        FilebasedResource parallel = new FilebasedResource("coordinates", files, getBasePath());
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            parallel.setLoadExecutor(executor);
+            List<String[]> expected = sequential.getData(false);
+            List<String[]> actual = parallel.getData(false);
+            Assertions.assertEquals(9, actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Assertions.assertArrayEquals(expected.get(i), actual.get(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testStreamDataFromMultipartFilePath() throws Exception{
+        String[] paths = new String[]{
+                "data/cities.csv",
+                "data/cities2.csv",
+                "data/cities3.csv"};
+        List<File> files = new ArrayList<>();
+        for (String file : paths) {
+            files.add(new File (file));
+        }
+        FilebasedResource resource = new FilebasedResource("coordinates", files, getBasePath());
+        List<Map<String, Object>> expected = resource.getMappedData(false);
+
+        try (Stream<Map<String, Object>> stream = resource.mappingStream(false)) {
+            Assertions.assertEquals(expected, stream.toList());
+        }
+        try (Stream<Map<String, Object>> stream = resource.mappingStream(false).parallel()) {
+            Assertions.assertEquals(expected, stream.toList());
+        }
+        try (Stream<Object[]> stream = resource.objectArrayStream(false).parallel()) {
+            Assertions.assertEquals(9, stream.count());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that Resource streams report their size once the row counts of all tables are known")
+    public void testStreamSizeOfMultipartFilePath() throws Exception{
+        List<File> files = List.of(new File("data/cities.csv"), new File("data/cities2.csv"),
+                new File("data/cities3.csv"));
+        FilebasedResource resource = new FilebasedResource("coordinates", files, getBasePath());
+        try (Stream<Object[]> stream = resource.objectArrayStream(false)) {
+            Spliterator<Object[]> spliterator = stream.spliterator();
+            Assertions.assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+            spliterator.forEachRemaining(row -> {});
+        }
+
+        try (Stream<Map<String, Object>> stream = resource.mappingStream(false)) {
+            Spliterator<Map<String, Object>> spliterator = stream.spliterator();
+            Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            Assertions.assertEquals(9, spliterator.getExactSizeIfKnown());
+            Spliterator<Map<String, Object>> prefix = spliterator.trySplit();
+            Assertions.assertEquals(9, prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+        }
+    }
+
     @Test
     public void testIterateDataFromMultipartURLPath() throws Exception{
         List<String[]> expectedData  = new ArrayList();
@@ -471,6 +554,29 @@ public class ResourceTest {
         Assertions.assertEquals("£", row2[2]);
     }
     
+    @Test
+    @DisplayName("Test that entries extracted from a ZIP package are deleted when the Package is closed")
+    public void testReadFromZipFileDeletesExtractedFiles() throws Exception{
+        String sourceFileAbsPath = ResourceTest.class.getResource("/fixtures/zip/countries-and-currencies.zip").getPath();
+
+        Package dp = new Package(new File(sourceFileAbsPath).toPath(), true);
+        FilebasedResource r = (FilebasedResource) dp.getResource("currencies");
+        Assertions.assertEquals(2, r.getData(false, false, false, false).size());
+        Path extractDirectory = r.getExtractDirectory();
+        Assertions.assertNotNull(extractDirectory);
+        try (Stream<Path> files = Files.walk(extractDirectory)) {
+            Assertions.assertTrue(files.anyMatch(Files::isRegularFile));
+        }
+
+        dp.close();
+        Assertions.assertFalse(Files.exists(extractDirectory));
+        Assertions.assertNull(r.getExtractDirectory());
+
+        // the entries are extracted again when read after closing
+        Assertions.assertEquals(2, r.getData(false, false, false, false).size());
+        r.releaseExtractedFiles();
+    }
+
     @Test
     public void testHeadings() throws Exception{
         Resource resource = buildResource("/fixtures/data/population.csv");
@@ -549,6 +655,336 @@ public class ResourceTest {
         }
     }
 
+    @Test
+    @DisplayName("Test reading Resource data memory-mapped yields the same rows as reading it buffered")
+    public void testReadMemoryMapped() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> bufferedData = resource.getMappedData(false);
+        List<Object> bufferedRows = resource.getData(false, false, true, false);
+
+        resource.setMemoryMapped(true);
+        Assertions.assertEquals(bufferedData, resource.getMappedData(false));
+        List<Object> mappedRows = resource.getData(false, false, true, false);
+        Assertions.assertEquals(bufferedRows.size(), mappedRows.size());
+        for (int i = 0; i < mappedRows.size(); i++) {
+            Assertions.assertArrayEquals((Object[]) bufferedRows.get(i), (Object[]) mappedRows.get(i));
+        }
+        Iterator<String[]> iter = resource.stringArrayIterator();
+        Assertions.assertArrayEquals(new String[]{"london", "2017", "8780000"}, iter.next());
+    }
+
+    @Test
+    @DisplayName("Test that memory-mapped reads cast missing values to null and pick up changed files")
+    public void testReadMemoryMappedMissingValuesAndChangedFile(@TempDir Path tempDir) throws Exception{
+        Path file = tempDir.resolve("amounts.csv");
+        Files.writeString(file, "id,amount\n1,\n2,5\n");
+        FilebasedResource resource = new FilebasedResource("amounts", List.of(new File("amounts.csv")),
+                tempDir.toFile());
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(Schema.fromJson("{\"fields\":[{\"name\":\"id\",\"type\":\"integer\"}," +
+                "{\"name\":\"amount\",\"type\":\"integer\"}]}", true));
+        resource.setMemoryMapped(true);
+        List<Map<String, Object>> data = resource.getMappedData(false);
+        Assertions.assertEquals(2, data.size());
+        Assertions.assertNull(data.get(0).get("amount"));
+        Assertions.assertEquals(BigInteger.valueOf(5), data.get(1).get("amount"));
+
+        Files.writeString(file, "id,amount\n1,3\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        Iterator<Map<String, Object>> iter = resource.mappingIterator(false);
+        Assertions.assertEquals(BigInteger.valueOf(3), iter.next().get("amount"));
+        Assertions.assertFalse(iter.hasNext());
+    }
+
+    @Test
+    @DisplayName("Test parsing Resource data in parallel yields the same rows as reading it sequentially")
+    public void testReadParallel() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> sequentialData = resource.getMappedData(false);
+
+        Assertions.assertEquals(sequentialData, resource.parallelMappingStream(true).toList());
+        Assertions.assertEquals(sequentialData.size(), resource.parallelObjectArrayStream(false).count());
+
+        resource.setMemoryMapped(true);
+        try (Stream<Map<String, Object>> stream = resource.mappingStream(false).parallel()) {
+            Assertions.assertEquals(sequentialData, stream.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that beans of some fields are read from values cast through the Schema")
+    public void testBeanIteratorProjected(@TempDir Path tempDir) throws Exception{
+        Files.writeString(tempDir.resolve("employees.csv"),
+                "id,name,dateOfBirth,isAdmin\n1,John Doe,1976-01-13,T\n2,Frank McKrank,,F\n");
+        FilebasedResource resource = new FilebasedResource("employees", List.of(new File("employees.csv")),
+                tempDir.toFile());
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(Schema.fromJson("{\"fields\":[{\"name\":\"id\",\"type\":\"integer\"}," +
+                "{\"name\":\"name\",\"type\":\"string\"},{\"name\":\"dateOfBirth\",\"type\":\"date\"}," +
+                "{\"name\":\"isAdmin\",\"type\":\"boolean\",\"trueValues\":[\"T\"],\"falseValues\":[\"F\"]}]}",
+                true));
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("id", "dateOfBirth", "isAdmin"));
+
+        Iterator<EmployeeBean> iter = resource.beanIterator(EmployeeBean.class, fields);
+        EmployeeBean john = iter.next();
+        Assertions.assertEquals(1, john.getId());
+        Assertions.assertNull(john.getName());
+        Assertions.assertEquals(LocalDate.of(1976, 1, 13), john.getDateOfBirth());
+        Assertions.assertTrue(john.getAdmin());
+        EmployeeBean frank = iter.next();
+        Assertions.assertNull(frank.getDateOfBirth());
+        Assertions.assertFalse(frank.getAdmin());
+        Assertions.assertFalse(iter.hasNext());
+
+        Map<String, Object> projected = resource.mappingIterator(fields).next();
+        Assertions.assertEquals(Boolean.TRUE, projected.get("isAdmin"));
+    }
+
+    @Test
+    @DisplayName("Test reading only some fields of a Resource")
+    public void testReadProjected() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> data = resource.getMappedData(false);
+        Set<String> fields = new LinkedHashSet<>(Arrays.asList("population", "city"));
+
+        Iterator<Object[]> iter = resource.objectArrayIterator("population", "city");
+        Iterator<Map<String, Object>> mapIter = resource.mappingIterator(fields);
+        for (Map<String, Object> row : data) {
+            Assertions.assertArrayEquals(new Object[]{row.get("population"), row.get("city")}, iter.next());
+            Map<String, Object> projected = mapIter.next();
+            Assertions.assertEquals(new ArrayList<>(fields), new ArrayList<>(projected.keySet()));
+            Assertions.assertEquals(row.get("population"), projected.get("population"));
+        }
+        Assertions.assertFalse(iter.hasNext());
+
+        Schema citySchema = Schema.fromJson("{\"fields\":[{\"name\":\"city\",\"type\":\"string\"}]}", true);
+        Assertions.assertEquals("city\nlondon\nparis\nrome",
+                resource.getDataAsCsv(Dialect.DEFAULT, citySchema).replaceAll("[\n\r]+", "\n"));
+
+        resource.setMemoryMapped(true);
+        Iterator<Object[]> mappedIter = resource.objectArrayIterator("population", "city");
+        for (Map<String, Object> row : data) {
+            Assertions.assertArrayEquals(new Object[]{row.get("population"), row.get("city")}, mappedIter.next());
+        }
+        Assertions.assertThrows(TableValidationException.class, () -> resource.objectArrayIterator("area"));
+    }
+
+    @Test
+    @DisplayName("Test reading only the rows of a Resource that match a filter")
+    public void testReadFiltered() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        RowFilter filter = RowFilter.where("population").isBetween(2000000, 3000000)
+                .and("city").isIn(Arrays.asList("paris", "london"));
+        List<Map<String, Object>> expected = new ArrayList<>();
+        resource.getMappedData(false).stream().filter(filter::matches).forEach(expected::add);
+        Assertions.assertEquals(1, expected.size());
+        Assertions.assertEquals("paris", expected.get(0).get("city"));
+
+        List<Map<String, Object>> filtered = new ArrayList<>();
+        resource.mappingIterator(filter).forEachRemaining(filtered::add);
+        Assertions.assertEquals(expected, filtered);
+        Iterator<Map<String, Object>> projected = resource.mappingIterator(filter, Collections.singleton("city"));
+        Assertions.assertEquals(Collections.singletonMap("city", "paris"), projected.next());
+        Assertions.assertFalse(projected.hasNext());
+
+        resource.setMemoryMapped(true);
+        filtered.clear();
+        resource.mappingIterator(filter).forEachRemaining(filtered::add);
+        Assertions.assertEquals(expected, filtered);
+        Assertions.assertFalse(resource.objectArrayIterator(RowFilter.where("city").isNull()).hasNext());
+    }
+
+    @Test
+    @DisplayName("Test filtering rows on null fields honors the missingValues of the Schema")
+    public void testReadFilteredMissingValues(@TempDir Path tempDir) throws Exception{
+        Files.writeString(tempDir.resolve("cities.csv"), "id,city\n1,london\n2,NA\n3,\n");
+        FilebasedResource resource = new FilebasedResource("cities", List.of(new File("cities.csv")),
+                tempDir.toFile());
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(Schema.fromJson("{\"fields\":[{\"name\":\"id\",\"type\":\"integer\"}," +
+                "{\"name\":\"city\",\"type\":\"string\"}],\"missingValues\":[\"\",\"NA\"]}", true));
+        RowFilter isNull = RowFilter.where("city").isNull();
+        RowFilter isNotNull = RowFilter.where("city").isNotNull();
+        List<Map<String, Object>> expectedNull = new ArrayList<>();
+        List<Map<String, Object>> expectedNotNull = new ArrayList<>();
+        resource.mappingIterator(new LinkedHashSet<>(List.of("id", "city"))).forEachRemaining(row ->
+                (isNull.matches(row) ? expectedNull : expectedNotNull).add(row));
+        Assertions.assertEquals(2, expectedNull.size());
+        Assertions.assertEquals(1, expectedNotNull.size());
+
+        for (boolean memoryMapped : new boolean[]{false, true}) {
+            resource.setMemoryMapped(memoryMapped);
+            List<Map<String, Object>> filtered = new ArrayList<>();
+            resource.mappingIterator(isNull, new LinkedHashSet<>(List.of("id", "city"))).forEachRemaining(filtered::add);
+            Assertions.assertEquals(expectedNull, filtered);
+            filtered.clear();
+            resource.mappingIterator(isNotNull, new LinkedHashSet<>(List.of("id", "city"))).forEachRemaining(filtered::add);
+            Assertions.assertEquals(expectedNotNull, filtered);
+        }
+    }
+
+    @Test
+    @DisplayName("Test reading the first rows, a range of rows and samples of a Resource")
+    public void testReadPreview() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> data = resource.getMappedData(false);
+
+        Assertions.assertEquals(data.subList(0, 2), resource.head(2));
+        Assertions.assertEquals(data, resource.head(10));
+        Assertions.assertEquals(data.subList(1, 2), resource.slice(1, 1));
+        Assertions.assertTrue(resource.slice(5, 1).isEmpty());
+
+        List<Map<String, Object>> sample = resource.sample(2, 42L);
+        Assertions.assertEquals(2, sample.size());
+        Assertions.assertTrue(data.containsAll(sample));
+        Assertions.assertEquals(sample, resource.sample(2, 42L));
+        Assertions.assertEquals(data, resource.sample(1.0, 7L));
+        Assertions.assertTrue(resource.sample(0.0, 7L).isEmpty());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> resource.slice(-1, 1));
+    }
+
+    @Test
+    @DisplayName("Test reading a Resource into a columnar table")
+    public void testToColumnar() throws Exception{
+        Resource<?> resource = buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> data = resource.getMappedData(false);
+
+        ColumnarTable table = resource.toColumnar();
+        Assertions.assertEquals(data.size(), table.getRowCount());
+        Assertions.assertArrayEquals(new String[]{"city", "year", "population"}, table.getColumnNames());
+        Assertions.assertInstanceOf(DictionaryColumn.class, table.getColumn("city"));
+        Assertions.assertInstanceOf(LongColumn.class, table.getColumn("population"));
+        for (int i = 0; i < data.size(); i++) {
+            Assertions.assertEquals(data.get(i).get("city"), table.getValue(i, 0));
+            Assertions.assertEquals(data.get(i).get("year"), table.getMappedRow(i).get("year"));
+            Assertions.assertEquals(((Number) data.get(i).get("population")).longValue(),
+                    ((LongColumn) table.getColumn("population")).getLong(i));
+        }
+        Assertions.assertEquals("london", ((DictionaryColumn) table.getColumn(0)).getString(0));
+    }
+
+    @Test
+    @DisplayName("Test reading a Resource in batches of rows")
+    public void testReadBatches() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Object[]> expected = new ArrayList<>();
+        resource.objectArrayIterator("city", "year", "population").forEachRemaining(expected::add);
+
+        for (boolean memoryMapped : new boolean[]{false, true}) {
+            resource.setMemoryMapped(memoryMapped);
+            Iterator<RowBatch> iter = resource.batchIterator(2);
+            RowBatch batch = iter.next();
+            Assertions.assertArrayEquals(new String[]{"city", "year", "population"}, batch.getHeaders());
+            Assertions.assertEquals(2, batch.size());
+            Assertions.assertArrayEquals(expected.get(0), batch.getRow(0));
+            Assertions.assertArrayEquals(expected.get(1), batch.getRow(1));
+            Object[] reused = batch.getRow(0);
+            Assertions.assertSame(batch, iter.next());
+            Assertions.assertEquals(1, batch.size());
+            Assertions.assertSame(reused, batch.getRow(0));
+            Assertions.assertArrayEquals(expected.get(2), batch.getRow(0));
+            Assertions.assertFalse(iter.hasNext());
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> resource.batchIterator(0));
+    }
+
+    @Test
+    @DisplayName("Test scanning a Resource with a cursor")
+    public void testReadCursor() throws Exception{
+        FilebasedResource resource = (FilebasedResource) buildResource("/fixtures/data/population.csv");
+        Schema schema = Schema.fromJson(new File(getTestDataDirectory()
+                , "/fixtures/schema/population_schema.json"), true);
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(schema);
+        List<Map<String, Object>> data = resource.getMappedData(false);
+
+        try (ResourceCursor cursor = resource.cursor()) {
+            Assertions.assertArrayEquals(new String[]{"city", "year", "population"}, cursor.getHeaders());
+            int row = 0;
+            while (cursor.next()) {
+                Assertions.assertEquals(data.get(row).get("city"), cursor.getString(0));
+                Assertions.assertEquals(((Number) data.get(row).get("population")).longValue(), cursor.getLong(2));
+                Assertions.assertEquals(((Number) data.get(row).get("population")).doubleValue(), cursor.getDouble(2));
+                Assertions.assertFalse(cursor.isNull(1));
+                row++;
+            }
+            Assertions.assertEquals(data.size(), row);
+            Assertions.assertThrows(IllegalStateException.class, () -> cursor.getLong(2));
+        }
+        Assertions.assertFalse(resource.cursor() instanceof MappedCursor);
+
+        resource.setMemoryMapped(true);
+        ResourceCursor mapped = resource.cursor();
+        Assertions.assertInstanceOf(MappedCursor.class, mapped);
+        Assertions.assertTrue(mapped.next());
+        Assertions.assertEquals(data.get(0).get("city"), mapped.getString(0));
+        mapped.close();
+        Assertions.assertFalse(mapped.next());
+
+        Resource<?> inline = new CSVDataResource("population", "city,population\nlondon,8780000\nparis,");
+        try (ResourceCursor cursor = inline.cursor()) {
+            Assertions.assertTrue(cursor.next());
+            Assertions.assertEquals(8780000L, cursor.getLong(1));
+            Assertions.assertTrue(cursor.next());
+            Assertions.assertTrue(cursor.isNull(1));
+            Assertions.assertEquals(0L, cursor.getLong(1));
+            Assertions.assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that cursors treat the null sequence of the dialect as null in every read mode")
+    public void testReadCursorNullSequence(@TempDir Path tempDir) throws Exception{
+        Files.writeString(tempDir.resolve("population.csv"), "city,population\nlondon,8780000\nparis,NA\n");
+        FilebasedResource resource = new FilebasedResource("population", List.of(new File("population.csv")),
+                tempDir.toFile());
+        resource.setProfile(Profile.PROFILE_TABULAR_DATA_RESOURCE);
+        resource.setSchema(Schema.fromJson("{\"fields\":[{\"name\":\"city\",\"type\":\"string\"}," +
+                "{\"name\":\"population\",\"type\":\"integer\"}]}", true));
+        resource.setDialect(Dialect.fromJson("{\"nullSequence\":\"NA\"}"));
+
+        for (boolean memoryMapped : new boolean[]{false, true}) {
+            resource.setMemoryMapped(memoryMapped);
+            try (ResourceCursor cursor = resource.cursor()) {
+                Assertions.assertTrue(cursor.next());
+                Assertions.assertFalse(cursor.isNull(1));
+                Assertions.assertEquals(8780000L, cursor.getLong(1));
+                Assertions.assertTrue(cursor.next());
+                Assertions.assertTrue(cursor.isNull(1));
+                Assertions.assertEquals(0L, cursor.getLong(1));
+                Assertions.assertFalse(cursor.next());
+            }
+        }
+    }
+
     @Test
     @DisplayName("Test setting invalid 'profile' property, must throw")
     public void testSetInvalidProfile() throws Exception {